@@ -0,0 +1,71 @@
+package com.hospital.application.benchmark;
+
+import com.hospital.application.repository.DoctorRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Prescription counter updates of doctors from several threads at once,
+ * all on one doctor row or spread over several.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class DoctorCounterBenchmark {
+
+    /**
+     * Number of doctors the updates are spread over.
+     */
+    @Param({"1", "16"})
+    private int doctors;
+
+    /**
+     * Doctor records repository.
+     */
+    private DoctorRepository repository;
+
+    /**
+     * Resolve the repository.
+     *
+     * @param state - seeded application.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final HospitalState state) {
+        repository = state.bean(DoctorRepository.class);
+    }
+
+    /**
+     * Increase the counter of a random doctor.
+     *
+     * @return number of updated rows.
+     */
+    @Benchmark
+    public int increment() {
+        long id = 1 + ThreadLocalRandom.current().nextInt(
+                Math.min(doctors, HospitalState.DOCTORS));
+        return repository.incrementCountFormulas(id);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hospital.application.benchmark;
+
+import com.hospital.application.entity.Formula;
+import com.hospital.application.repository.FormulaRepository;
+import com.hospital.application.repository.OffsetBasedPageRequest;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.hospital.application.repository.FormulaSpecifications.descriptionContains;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Filtering the formulas journal by description: in memory over every
+ * loaded formula, as the table did with the containsIgnoreCase filters
+ * before, against the database condition behind the column filter
+ * today, which returns the first window and the number of matches.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormulaFilterBenchmark {
+
+    /**
+     * Rows of a grid window.
+     */
+    private static final int WINDOW = 50;
+
+    /**
+     * Typed filter text.
+     */
+    @Param({"ибупро", "после еды"})
+    private String text;
+
+    /**
+     * Formula records repository.
+     */
+    private FormulaRepository repository;
+
+    /**
+     * Database condition of the filter.
+     */
+    private Specification<Formula> spec;
+
+    /**
+     * Resolve the repository.
+     *
+     * @param state - seeded application.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final HospitalState state) {
+        repository = state.bean(FormulaRepository.class);
+        spec = descriptionContains(text);
+    }
+
+    /**
+     * Load every formula and filter it in memory.
+     *
+     * @return matching formulas.
+     */
+    @Benchmark
+    public List<Formula> filterInMemory() {
+        return repository.findAll().stream()
+                .filter(formula -> StringUtils.containsIgnoreCase(
+                        formula.getDescription(), text))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Filter in the database: the first window and the number of matches.
+     *
+     * @param blackhole - sink of the results.
+     */
+    @Benchmark
+    public void filterInDatabase(final Blackhole blackhole) {
+        blackhole.consume(repository.findAll(spec,
+                new OffsetBasedPageRequest(0, WINDOW, Sort.by("id")))
+                .getContent());
+        blackhole.consume(repository.count(spec));
+    }
+}
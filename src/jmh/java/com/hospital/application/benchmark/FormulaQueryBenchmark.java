@@ -0,0 +1,150 @@
+package com.hospital.application.benchmark;
+
+import com.hospital.application.entity.Formula;
+import com.hospital.application.repository.FormulaKeyset;
+import com.hospital.application.repository.FormulaRepository;
+import com.hospital.application.repository.OffsetBasedPageRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Reading the formulas journal: the whole table as the grid did before
+ * lazy loading, one window in the middle by offset and by key, and the
+ * same window as a projection of the shown columns.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormulaQueryBenchmark {
+
+    /**
+     * Rows of a grid window.
+     */
+    private static final int WINDOW = 50;
+
+    /**
+     * Ordering of the windows.
+     */
+    private static final Sort SORT =
+            FormulaKeyset.CREATION_DATE.sort(Sort.Direction.ASC);
+
+    /**
+     * Condition matching every formula.
+     */
+    private static final Specification<Formula> NO_FILTER = null;
+
+    /**
+     * Formula records repository.
+     */
+    private FormulaRepository repository;
+
+    /**
+     * Entity manager factory for the projection.
+     */
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Offset of the window in the middle of the journal.
+     */
+    private int middle;
+
+    /**
+     * Last row before the window in the middle.
+     */
+    private Formula beforeMiddle;
+
+    /**
+     * Find the window in the middle of the journal.
+     *
+     * @param state - seeded application.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final HospitalState state) {
+        repository = state.bean(FormulaRepository.class);
+        entityManagerFactory = state.bean(EntityManagerFactory.class);
+        middle = state.getFormulas() / 2;
+        beforeMiddle = repository.findAll(NO_FILTER,
+                new OffsetBasedPageRequest(middle - 1, 1, SORT))
+                .getContent().get(0);
+    }
+
+    /**
+     * Load every formula.
+     *
+     * @return formulas.
+     */
+    @Benchmark
+    public List<Formula> findAll() {
+        return repository.findAll();
+    }
+
+    /**
+     * Load the window in the middle by offset.
+     *
+     * @return formulas of the window.
+     */
+    @Benchmark
+    public List<Formula> findPageByOffset() {
+        return repository.findAll(NO_FILTER,
+                new OffsetBasedPageRequest(middle, WINDOW, SORT))
+                .getContent();
+    }
+
+    /**
+     * Load the window in the middle by key.
+     *
+     * @return formulas of the window.
+     */
+    @Benchmark
+    public List<Formula> findPageByKey() {
+        return repository.findNext(NO_FILTER, FormulaKeyset.CREATION_DATE,
+                Sort.Direction.ASC, beforeMiddle, WINDOW);
+    }
+
+    /**
+     * Load the shown columns of the window in the middle by offset.
+     *
+     * @return column values of the window.
+     */
+    @Benchmark
+    public List<Object[]> findPageProjection() {
+        EntityManager entityManager =
+                entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("select f.id, f.description,"
+                    + " d.lastName, p.lastName, f.priority, f.creationDate,"
+                    + " f.validity from Formula f join f.doctor d"
+                    + " left join f.patient p"
+                    + " order by f.creationDate, f.id", Object[].class)
+                    .setFirstResult(middle)
+                    .setMaxResults(WINDOW)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.hospital.application.benchmark;
+
+import com.hospital.application.Application;
+import com.hospital.application.entity.Priority;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Application context over an in-memory database seeded with a given
+ * number of formulas, shared by all threads of a benchmark.
+ * <p>
+ * Run with {@code mvn -Pjmh verify}, the results are written to
+ * "target/jmh-result.json". Options of the JMH runner are passed in
+ * {@code -Djmh.args}, e.g. {@code -Djmh.args="-p formulas=10000 Filter"}.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class HospitalState {
+
+    /**
+     * Number of doctors.
+     */
+    public static final int DOCTORS = 100;
+
+    /**
+     * Words of the formula descriptions.
+     */
+    private static final String[] WORDS = {
+            "Амоксициллин", "Ибупрофен", "Парацетамол", "Омепразол",
+            "Лоратадин", "Метформин", "Аторвастатин", "Цетиризин",
+            "по 1 таблетке", "2 раза в день", "после еды", "курс 7 дней"
+    };
+
+    /**
+     * Rows inserted in one JDBC batch.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Number of seeded formulas.
+     */
+    @Param({"10000", "100000", "1000000"})
+    private int formulas;
+
+    /**
+     * Application context.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * Start the application without the web server and seed the database.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:hsqldb:mem:benchmark",
+                        "spring.jpa.properties.hibernate.search.default"
+                                + ".directory_provider=local-heap",
+                        "hospital.expiry.initial-delay=86400000",
+                        "hospital.archive.cron=-",
+                        "logging.level.root=warn")
+                .run();
+        seed(bean(JdbcTemplate.class));
+    }
+
+    /**
+     * Close the application.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bean(JdbcTemplate.class).execute("SHUTDOWN");
+        context.close();
+    }
+
+    /**
+     * Bean of the application context.
+     *
+     * @param type - bean type.
+     * @param <T>  - bean type.
+     * @return bean.
+     */
+    public <T> T bean(final Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Function to get value of field {@link HospitalState#formulas}.
+     *
+     * @return returns number of seeded formulas.
+     */
+    public int getFormulas() {
+        return formulas;
+    }
+
+    /**
+     * Insert doctors, patients and formulas with fixed IDs from 1 and
+     * move the ID sequences past them.
+     *
+     * @param jdbc - JDBC access.
+     */
+    private void seed(final JdbcTemplate jdbc) {
+        Random random = new Random(formulas);
+        int patients = Math.max(DOCTORS, formulas / 10);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int id = 1; id <= DOCTORS; id++) {
+            rows.add(new Object[]{id, "Врачев" + id, "Иван", "Петрович",
+                    "Терапевт"});
+        }
+        flush(jdbc, "INSERT INTO doctor (id, last_name, name, patronymic,"
+                + " specialization, count_formulas)"
+                + " VALUES (?, ?, ?, ?, ?, 0)", rows);
+        for (int id = 1; id <= patients; id++) {
+            rows.add(new Object[]{id, "Пациентов" + id, "Пётр", "Иванович",
+                    String.format("+7900%07d", id)});
+            if (rows.size() == BATCH_SIZE) {
+                flush(jdbc, "INSERT INTO patient (id, last_name, name,"
+                        + " patronymic, number) VALUES (?, ?, ?, ?, ?)", rows);
+            }
+        }
+        flush(jdbc, "INSERT INTO patient (id, last_name, name,"
+                + " patronymic, number) VALUES (?, ?, ?, ?, ?)", rows);
+        LocalDate today = LocalDate.now();
+        String insertFormula = "INSERT INTO formula (id, description,"
+                + " doctor_id, patient_id, priority, creation_date, validity)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+        for (int id = 1; id <= formulas; id++) {
+            LocalDate created = today.minusDays(random.nextInt(730));
+            rows.add(new Object[]{id,
+                    WORDS[random.nextInt(8)] + " "
+                            + WORDS[8 + random.nextInt(4)],
+                    1 + random.nextInt(DOCTORS),
+                    1 + random.nextInt(patients),
+                    random.nextInt(Priority.values().length),
+                    Date.valueOf(created),
+                    Date.valueOf(created.plusDays(30 + random.nextInt(335)))});
+            if (rows.size() == BATCH_SIZE) {
+                flush(jdbc, insertFormula, rows);
+            }
+        }
+        flush(jdbc, insertFormula, rows);
+        jdbc.execute("ALTER SEQUENCE doctor_seq RESTART WITH "
+                + (DOCTORS + 1));
+        jdbc.execute("ALTER SEQUENCE patient_seq RESTART WITH "
+                + (patients + 1));
+        jdbc.execute("ALTER SEQUENCE formula_seq RESTART WITH "
+                + (formulas + 1));
+    }
+
+    /**
+     * Insert collected rows in one batch.
+     *
+     * @param jdbc - JDBC access.
+     * @param sql  - insert statement.
+     * @param rows - rows, emptied afterwards.
+     */
+    private static void flush(final JdbcTemplate jdbc,
+                              final String sql,
+                              final List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.hospital.application.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hospital Application.
+ * <p>
+ * File database with the default settings (memory tables) against the
+ * "cached" profile: opening a database of a given size, which loads
+ * every row of memory tables into the heap, and single-row writes
+ * committed one by one, as the editor saves them.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HsqldbModeBenchmark {
+
+    /**
+     * Prefix of the migration placeholders in the profile.
+     */
+    private static final String PLACEHOLDERS = "spring.flyway.placeholders.";
+
+    /**
+     * Rows inserted in one JDBC batch while seeding.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Database settings: "memory" as configured by default, "cached" as
+     * configured by the profile.
+     */
+    @Param({"memory", "cached"})
+    private String mode;
+
+    /**
+     * Number of seeded formulas.
+     */
+    @Param({"100000", "1000000"})
+    private int formulas;
+
+    /**
+     * Directory of the database files.
+     */
+    private Path directory;
+
+    /**
+     * Database URL.
+     */
+    private String url;
+
+    /**
+     * Create, migrate and seed the database, then close it.
+     *
+     * @throws IOException  if the profile can not be read.
+     * @throws SQLException if the database can not be seeded.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("hospital-hsqldb");
+        url = "jdbc:hsqldb:file:" + directory.resolve("HospitalDB");
+        Properties profile = PropertiesLoaderUtils.loadAllProperties(
+                "application-cached.properties");
+        Properties main = PropertiesLoaderUtils.loadAllProperties(
+                "application.properties");
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put("allocation_size", main.getProperty(
+                "spring.jpa.properties.hospital.id.allocation_size"));
+        FluentConfiguration flyway = Flyway.configure()
+                .dataSource(url, "SA", "");
+        if ("cached".equals(mode)) {
+            profile.stringPropertyNames().stream()
+                    .filter(name -> name.startsWith(PLACEHOLDERS))
+                    .forEach(name -> placeholders.put(
+                            name.substring(PLACEHOLDERS.length()),
+                            profile.getProperty(name)));
+            flyway.locations(profile.getProperty("spring.flyway.locations")
+                    .split(","));
+        }
+        flyway.placeholders(placeholders).load().migrate();
+        try (Connection connection = open()) {
+            connection.setAutoCommit(false);
+            seed(connection);
+            connection.commit();
+            shutdown(connection);
+        }
+    }
+
+    /**
+     * Remove the database files.
+     *
+     * @throws IOException if the files can not be removed.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * Open the database, read the number of formulas and close it.
+     *
+     * @return number of formulas.
+     * @throws SQLException if the database can not be opened.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long startup() throws SQLException {
+        try (Connection connection = open();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT COUNT(*) FROM formula")) {
+            rs.next();
+            long count = rs.getLong(1);
+            shutdown(connection);
+            return count;
+        }
+    }
+
+    /**
+     * Insert one formula in its own transaction.
+     *
+     * @param session - open database.
+     * @return number of inserted rows.
+     * @throws SQLException if the row can not be inserted.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int write(final Session session) throws SQLException {
+        return session.insert.executeUpdate();
+    }
+
+    /**
+     * Connect to the database.
+     *
+     * @return connection.
+     * @throws SQLException if the database can not be opened.
+     */
+    private Connection open() throws SQLException {
+        return DriverManager.getConnection(url, "SA", "");
+    }
+
+    /**
+     * Close the database.
+     *
+     * @param connection - connection.
+     * @throws SQLException if the database can not be closed.
+     */
+    private static void shutdown(final Connection connection)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    /**
+     * Insert a doctor and the formulas.
+     *
+     * @param connection - connection.
+     * @throws SQLException if the rows can not be inserted.
+     */
+    private void seed(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO doctor (id, last_name, name,"
+                    + " patronymic, specialization, count_formulas) VALUES"
+                    + " (1, 'Врачев', 'Иван', 'Петрович', 'Терапевт', 0)");
+        }
+        LocalDate today = LocalDate.now();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO formula (id, description, doctor_id, priority,"
+                        + " creation_date, validity)"
+                        + " VALUES (?, ?, 1, 2, ?, ?)")) {
+            for (int id = 1; id <= formulas; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "Ибупрофен по 1 таблетке " + id);
+                insert.setDate(3, Date.valueOf(today.minusDays(id % 730)));
+                insert.setDate(4, Date.valueOf(today.plusDays(id % 365)));
+                insert.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE formula_seq RESTART WITH "
+                    + (formulas + 1));
+        }
+    }
+
+    /**
+     * Database opened for one measurement iteration of the writes.
+     */
+    @State(Scope.Thread)
+    public static class Session {
+
+        /**
+         * Connection in auto-commit mode.
+         */
+        private Connection connection;
+
+        /**
+         * Insert of one formula.
+         */
+        private PreparedStatement insert;
+
+        /**
+         * Open the database.
+         *
+         * @param benchmark - seeded database.
+         * @throws SQLException if the database can not be opened.
+         */
+        @Setup(Level.Iteration)
+        public void open(final HsqldbModeBenchmark benchmark)
+                throws SQLException {
+            connection = benchmark.open();
+            insert = connection.prepareStatement("INSERT INTO formula"
+                    + " (id, description, doctor_id, priority,"
+                    + " creation_date, validity) VALUES"
+                    + " (NEXT VALUE FOR formula_seq, 'Парацетамол', 1, 1,"
+                    + " CURRENT_DATE, CURRENT_DATE + 30 DAY)");
+        }
+
+        /**
+         * Close the database.
+         *
+         * @throws SQLException if the database can not be closed.
+         */
+        @TearDown(Level.Iteration)
+        public void close() throws SQLException {
+            insert.close();
+            shutdown(connection);
+            connection.close();
+        }
+    }
+}
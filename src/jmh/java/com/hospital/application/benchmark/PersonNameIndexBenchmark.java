@@ -0,0 +1,130 @@
+package com.hospital.application.benchmark;
+
+import com.hospital.application.entity.Patient;
+import com.hospital.application.service.PersonName;
+import com.hospital.application.service.PersonNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Typing into a person drop-down over a name index of a million persons:
+ * the first window of matches and their capped number. The queries mix
+ * a word shared by a large part of the persons with a rare one, in both
+ * orders, so the cost must not depend on the word typed first.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class PersonNameIndexBenchmark {
+
+    /**
+     * Indexed persons.
+     */
+    private static final int PERSONS = 1_000_000;
+
+    /**
+     * Rows of a drop-down window.
+     */
+    private static final int WINDOW = 50;
+
+    /**
+     * Upper bound of counted matches.
+     */
+    private static final int MAX_MATCHES = 1000;
+
+    /**
+     * Common last names, a rare one is made by a numeric suffix.
+     */
+    private static final String[] LAST_NAMES = {
+            "Иванов", "Петров", "Сидоров", "Смирнов", "Кузнецов",
+            "Попов", "Васильев", "Соколов", "Михайлов", "Новиков"
+    };
+
+    /**
+     * Common names.
+     */
+    private static final String[] NAMES = {
+            "Иван", "Пётр", "Сергей", "Алексей", "Дмитрий",
+            "Андрей", "Михаил", "Николай", "Юрий", "Олег"
+    };
+
+    /**
+     * Common patronymics.
+     */
+    private static final String[] PATRONYMICS = {
+            "Иванович", "Петрович", "Сергеевич", "Алексеевич",
+            "Дмитриевич", "Андреевич", "Михайлович", "Николаевич"
+    };
+
+    /**
+     * Typed text.
+     */
+    @Param({"ив", "иван сидоров4242", "сидоров4242 иван", "петр ив"})
+    private String text;
+
+    /**
+     * Index under test.
+     */
+    private PersonNameIndex index;
+
+    /**
+     * Fill the index with generated persons.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new PersonNameIndex(MAX_MATCHES);
+        Random random = new Random(42);
+        for (int i = 0; i < PERSONS; i++) {
+            Patient patient = new Patient();
+            patient.setId((long) i);
+            patient.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                    + random.nextInt(PERSONS / 100));
+            patient.setName(NAMES[random.nextInt(NAMES.length)]);
+            patient.setPatronymic(
+                    PATRONYMICS[random.nextInt(PATRONYMICS.length)]);
+            index.put(patient);
+        }
+    }
+
+    /**
+     * First window of matches.
+     *
+     * @return matches.
+     */
+    @Benchmark
+    public List<PersonName> search() {
+        return index.search(text, 0, WINDOW);
+    }
+
+    /**
+     * Number of matches, as the drop-down asks for it.
+     *
+     * @return capped number of matches.
+     */
+    @Benchmark
+    public int count() {
+        return index.count(text);
+    }
+}
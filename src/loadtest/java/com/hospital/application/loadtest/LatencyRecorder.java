@@ -0,0 +1,177 @@
+package com.hospital.application.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Round-trip times of the simulated user actions, by action.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class LatencyRecorder {
+
+    /**
+     * Recorded times in milliseconds, by action.
+     */
+    private final Map<String, List<Long>> times = new ConcurrentHashMap<>();
+
+    /**
+     * Number of failed actions, by action.
+     */
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Record a finished action.
+     *
+     * @param action - action name.
+     * @param millis - round-trip time in milliseconds.
+     */
+    public void record(final String action, final long millis) {
+        List<Long> list = times.computeIfAbsent(action,
+                a -> Collections.synchronizedList(new ArrayList<>()));
+        list.add(millis);
+    }
+
+    /**
+     * Record a failed action.
+     *
+     * @param action - action name.
+     */
+    public void fail(final String action) {
+        failures.merge(action, 1, Integer::sum);
+    }
+
+    /**
+     * Summary of every action, ordered by action name.
+     *
+     * @return summaries by action.
+     */
+    public Map<String, Summary> summarize() {
+        Map<String, Summary> result = new TreeMap<>();
+        times.forEach((action, list) -> {
+            List<Long> sorted;
+            synchronized (list) {
+                sorted = new ArrayList<>(list);
+            }
+            Collections.sort(sorted);
+            result.put(action, new Summary(sorted,
+                    failures.getOrDefault(action, 0)));
+        });
+        failures.forEach((action, count) -> result.putIfAbsent(action,
+                new Summary(Collections.emptyList(), count)));
+        return result;
+    }
+
+    /**
+     * Latency summary of one action.
+     */
+    public static final class Summary {
+
+        /**
+         * Number of finished actions.
+         */
+        private final int count;
+
+        /**
+         * Number of failed actions.
+         */
+        private final int failed;
+
+        /**
+         * Median time in milliseconds.
+         */
+        private final long p50;
+
+        /**
+         * 99th percentile time in milliseconds.
+         */
+        private final long p99;
+
+        /**
+         * Longest time in milliseconds.
+         */
+        private final long max;
+
+        /**
+         * Constructor.
+         *
+         * @param sorted - times in ascending order.
+         * @param failed - number of failed actions.
+         */
+        private Summary(final List<Long> sorted, final int failed) {
+            this.count = sorted.size();
+            this.failed = failed;
+            this.p50 = percentile(sorted, 50);
+            this.p99 = percentile(sorted, 99);
+            this.max = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1);
+        }
+
+        /**
+         * Nearest-rank percentile.
+         *
+         * @param sorted  - times in ascending order.
+         * @param percent - percentile.
+         * @return time or 0 without times.
+         */
+        private static long percentile(final List<Long> sorted,
+                                       final int percent) {
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+            return sorted.get(Math.max(0, rank - 1));
+        }
+
+        /**
+         * Function to get value of field {@link Summary#count}.
+         *
+         * @return returns number of finished actions.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Function to get value of field {@link Summary#failed}.
+         *
+         * @return returns number of failed actions.
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * Function to get value of field {@link Summary#p50}.
+         *
+         * @return returns median time in milliseconds.
+         */
+        public long getP50() {
+            return p50;
+        }
+
+        /**
+         * Function to get value of field {@link Summary#p99}.
+         *
+         * @return returns 99th percentile time in milliseconds.
+         */
+        public long getP99() {
+            return p99;
+        }
+
+        /**
+         * Function to get value of field {@link Summary#max}.
+         *
+         * @return returns longest time in milliseconds.
+         */
+        public long getMax() {
+            return max;
+        }
+    }
+}
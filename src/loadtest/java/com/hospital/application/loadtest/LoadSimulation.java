@@ -0,0 +1,169 @@
+package com.hospital.application.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Load test of a running server with concurrent simulated users.
+ * <p>
+ * Every user opens its routes in a headless Chrome, started one after
+ * another over the ramp-up time. Once all routes are open the used heap
+ * of the server is compared with the heap before the test and divided by
+ * the opened sessions and UIs; the heap is read before any garbage
+ * collection is forced, so the figure is an estimate to be compared
+ * between runs. Then every user filters and edits formulas. The p50/p99
+ * round-trip times of every action and the heap estimates are printed
+ * and written to a JSON file.
+ * <p>
+ * Run with {@code mvn -Ploadtest verify}, which starts the application,
+ * or against another server with {@code -Dloadtest.url=...}. The system
+ * properties "loadtest.users", "loadtest.iterations",
+ * "loadtest.ramp-up" (seconds) and "loadtest.result" override the
+ * defaults.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public final class LoadSimulation {
+
+    /**
+     * Bytes in a kilobyte.
+     */
+    private static final long KB = 1024;
+
+    /**
+     * Constructor.
+     */
+    private LoadSimulation() {
+    }
+
+    /**
+     * Run the load test.
+     *
+     * @param args - not used.
+     * @throws Exception if the test can not be run.
+     */
+    public static void main(final String[] args) throws Exception {
+        String url = System.getProperty("loadtest.url",
+                "http://localhost:8080/");
+        if (!url.endsWith("/")) {
+            url += "/";
+        }
+        int users = Integer.getInteger("loadtest.users", 10);
+        int iterations = Integer.getInteger("loadtest.iterations", 5);
+        long rampUp = TimeUnit.SECONDS.toMillis(
+                Integer.getInteger("loadtest.ramp-up", 10));
+        File result = new File(System.getProperty("loadtest.result",
+                "target/loadtest-result.json"));
+
+        WebDriverManager.chromedriver().setup();
+        ServerMetrics server = new ServerMetrics(url);
+        long heapBefore = server.usedHeap();
+        int sessionsBefore = server.sessions();
+        int uisBefore = server.uis();
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        CountDownLatch opened = new CountDownLatch(users);
+        CountDownLatch measured = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        List<Future<Void>> futures = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            futures.add(pool.submit(new SimulatedUser(url, iterations,
+                    recorder, opened, measured, i)));
+            Thread.sleep(rampUp / users);
+        }
+        opened.await();
+        long heap = server.usedHeap() - heapBefore;
+        int sessions = server.sessions() - sessionsBefore;
+        int uis = server.uis() - uisBefore;
+        measured.countDown();
+
+        int failedUsers = 0;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failedUsers++;
+                e.getCause().printStackTrace();
+            }
+        }
+        pool.shutdown();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", users);
+        report.put("failedUsers", failedUsers);
+        report.put("iterations", iterations);
+        report.put("heapDeltaKb", heap / KB);
+        report.put("sessions", sessions);
+        report.put("uis", uis);
+        report.put("heapPerSessionKb",
+                sessions > 0 ? heap / KB / sessions : 0);
+        report.put("heapPerUiKb", uis > 0 ? heap / KB / uis : 0);
+        report.put("actions", recorder.summarize());
+        print(report, recorder);
+        write(result, report);
+        if (failedUsers > 0) {
+            throw new IllegalStateException(
+                    failedUsers + " simulated users failed");
+        }
+    }
+
+    /**
+     * Print the report.
+     *
+     * @param report   - report values.
+     * @param recorder - action times.
+     */
+    private static void print(final Map<String, Object> report,
+                              final LatencyRecorder recorder) {
+        System.out.printf("Users: %s (failed %s), iterations: %s%n",
+                report.get("users"), report.get("failedUsers"),
+                report.get("iterations"));
+        System.out.printf("Heap: %s KB for %s sessions and %s UIs,"
+                        + " ~%s KB per session, ~%s KB per UI%n",
+                report.get("heapDeltaKb"), report.get("sessions"),
+                report.get("uis"), report.get("heapPerSessionKb"),
+                report.get("heapPerUiKb"));
+        System.out.printf("%-16s %7s %7s %7s %7s %7s%n",
+                "action", "count", "failed", "p50 ms", "p99 ms", "max ms");
+        recorder.summarize().forEach((action, summary) ->
+                System.out.printf("%-16s %7d %7d %7d %7d %7d%n", action,
+                        summary.getCount(), summary.getFailed(),
+                        summary.getP50(), summary.getP99(),
+                        summary.getMax()));
+    }
+
+    /**
+     * Write the report as JSON.
+     *
+     * @param file   - target file.
+     * @param report - report values.
+     * @throws IOException if the file can not be written.
+     */
+    private static void write(final File file,
+                              final Map<String, Object> report)
+            throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Can not create " + parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file, report);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hospital.application.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Reads the gauges of the server under test from the actuator
+ * metrics endpoint.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class ServerMetrics {
+
+    /**
+     * JSON reader.
+     */
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Base URL of the application.
+     */
+    private final String baseUrl;
+
+    /**
+     * Constructor.
+     *
+     * @param baseUrl - base URL of the application, ending with "/".
+     */
+    public ServerMetrics(final String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Used heap memory.
+     *
+     * @return bytes.
+     * @throws IOException if the endpoint can not be read.
+     */
+    public long usedHeap() throws IOException {
+        return (long) value("jvm.memory.used?tag=area:heap");
+    }
+
+    /**
+     * Number of live Vaadin sessions.
+     *
+     * @return sessions.
+     * @throws IOException if the endpoint can not be read.
+     */
+    public int sessions() throws IOException {
+        return (int) value("hospital.ui.sessions");
+    }
+
+    /**
+     * Number of attached Vaadin UIs.
+     *
+     * @return UIs.
+     * @throws IOException if the endpoint can not be read.
+     */
+    public int uis() throws IOException {
+        return (int) value("hospital.ui.active");
+    }
+
+    /**
+     * First measurement of a meter.
+     *
+     * @param meter - meter name with optional tag query.
+     * @return value.
+     * @throws IOException if the endpoint can not be read.
+     */
+    private double value(final String meter) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection)
+                new URL(baseUrl + "actuator/metrics/" + meter)
+                        .openConnection();
+        connection.setRequestProperty("Accept", "application/json");
+        try (InputStream in = connection.getInputStream()) {
+            JsonNode measurements = JSON.readTree(in).path("measurements");
+            if (measurements.size() == 0) {
+                throw new IOException("No measurements of " + meter);
+            }
+            return measurements.get(0).path("value").asDouble();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
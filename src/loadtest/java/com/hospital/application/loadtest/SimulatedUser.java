@@ -0,0 +1,211 @@
+package com.hospital.application.loadtest;
+
+import com.vaadin.flow.component.button.testbench.ButtonElement;
+import com.vaadin.flow.component.grid.testbench.GridElement;
+import com.vaadin.flow.component.notification.testbench.NotificationElement;
+import com.vaadin.flow.component.textfield.testbench.TextFieldElement;
+import com.vaadin.testbench.TestBench;
+import com.vaadin.testbench.TestBenchTestCase;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Hospital Application.
+ * <p>
+ * One nurse in a headless browser: opens the patients, doctors and
+ * formulas routes, filters the formulas journal and edits a formula,
+ * timing every action until the server has answered and the client is
+ * idle again. Every user edits the row of the journal at its own number,
+ * so the saves do not conflict while there are more rows than users.
+ * A save rejected because the row was changed by another user is timed
+ * as "save-formula-conflict", apart from the saves that went through.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class SimulatedUser extends TestBenchTestCase
+        implements Callable<Void> {
+
+    /**
+     * Words typed into the description filter.
+     */
+    private static final String[] FILTERS = {"ибу", "таб", "день", "курс"};
+
+    /**
+     * Start of the notification shown when a save conflicts with
+     * a change of another user.
+     */
+    private static final String CONFLICT = "Запись изменена другим";
+
+    /**
+     * Base URL of the application.
+     */
+    private final String baseUrl;
+
+    /**
+     * Number of action rounds.
+     */
+    private final int iterations;
+
+    /**
+     * Receiver of the action times.
+     */
+    private final LatencyRecorder recorder;
+
+    /**
+     * Counted down once the routes are open, the heap is measured then.
+     */
+    private final CountDownLatch opened;
+
+    /**
+     * Released once the heap is measured.
+     */
+    private final CountDownLatch measured;
+
+    /**
+     * Number of the user.
+     */
+    private final int number;
+
+    /**
+     * Constructor.
+     *
+     * @param baseUrl    - base URL of the application.
+     * @param iterations - number of action rounds.
+     * @param recorder   - receiver of the action times.
+     * @param opened     - counted down once the routes are open.
+     * @param measured   - released once the heap is measured.
+     * @param number     - number of the user.
+     */
+    public SimulatedUser(final String baseUrl,
+                         final int iterations,
+                         final LatencyRecorder recorder,
+                         final CountDownLatch opened,
+                         final CountDownLatch measured,
+                         final int number) {
+        this.baseUrl = baseUrl;
+        this.iterations = iterations;
+        this.recorder = recorder;
+        this.opened = opened;
+        this.measured = measured;
+        this.number = number;
+    }
+
+    @Override
+    public Void call() throws InterruptedException {
+        ChromeOptions options = new ChromeOptions();
+        options.setHeadless(true);
+        options.addArguments("--disable-gpu", "--window-size=1280,900");
+        try {
+            setDriver(TestBench.createDriver(new ChromeDriver(options)));
+            timed("open-patients", () -> open("patients"));
+            timed("open-doctors", () -> open("doctors"));
+            timed("open-formulas", () -> open("formulas"));
+        } finally {
+            opened.countDown();
+        }
+        try {
+            measured.await();
+            for (int i = 0; i < iterations; i++) {
+                int round = i;
+                timed("filter-formulas", () -> filter(
+                        FILTERS[(number + round) % FILTERS.length]));
+                timed("clear-filter", () -> filter(""));
+                long conflicts = conflicts();
+                timed("save-formula", () -> save(round),
+                        () -> conflicts() > conflicts
+                                ? "save-formula-conflict"
+                                : "save-formula");
+            }
+        } finally {
+            getDriver().quit();
+        }
+        return null;
+    }
+
+    /**
+     * Open a route and wait for its table.
+     *
+     * @param route - route.
+     */
+    private void open(final String route) {
+        getDriver().get(baseUrl + route);
+        $(GridElement.class).waitForFirst();
+    }
+
+    /**
+     * Type a text into the description filter of the formulas journal.
+     *
+     * @param text - filter text.
+     */
+    private void filter(final String text) {
+        $(TextFieldElement.class).attribute("placeholder", "Filter")
+                .first().setValue(text);
+    }
+
+    /**
+     * Edit the description of the formula at the number of the user.
+     *
+     * @param round - number of the round.
+     */
+    private void save(final int round) {
+        GridElement grid = $(GridElement.class).first();
+        int row = number % grid.getRowCount();
+        grid.scrollToRow(row);
+        grid.getCell(row, grid.getVisibleColumns().size() - 1)
+                .$(ButtonElement.class).attribute("class", "edit").first()
+                .click();
+        $(TextFieldElement.class).id("description-editor").setValue(
+                "Нагрузочный тест " + number + "-" + round);
+        $(ButtonElement.class).attribute("class", "save").first().click();
+    }
+
+    /**
+     * Number of open notifications of conflicting saves.
+     *
+     * @return open conflict notifications.
+     */
+    private long conflicts() {
+        return $(NotificationElement.class).all().stream()
+                .filter(NotificationElement::isOpen)
+                .filter(notification -> notification.getText()
+                        .startsWith(CONFLICT))
+                .count();
+    }
+
+    /**
+     * Run an action and record its time, failures are counted.
+     *
+     * @param name   - action name.
+     * @param action - action.
+     */
+    private void timed(final String name, final Runnable action) {
+        timed(name, action, () -> name);
+    }
+
+    /**
+     * Run an action and record its time under the name of its outcome,
+     * failures are counted under the action name.
+     *
+     * @param name    - action name.
+     * @param action  - action.
+     * @param outcome - name the time is recorded under, asked once the
+     *                client is idle again.
+     */
+    private void timed(final String name, final Runnable action,
+                       final Supplier<String> outcome) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+            getCommandExecutor().waitForVaadin();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            recorder.record(outcome.get(), millis);
+        } catch (RuntimeException e) {
+            recorder.fail(name);
+        }
+    }
+}
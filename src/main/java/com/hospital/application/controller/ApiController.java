@@ -0,0 +1,359 @@
+package com.hospital.application.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hospital.application.entity.Doctor;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.entity.Patient;
+import com.hospital.application.entity.Person;
+import com.hospital.application.repository.DoctorRepository;
+import com.hospital.application.repository.FormulaRepository;
+import com.hospital.application.repository.PatientRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Read-only JSON API over patients, doctors and formulas for other
+ * systems.
+ * <p>
+ * Lists are read in windows of the ID order: a window holds the rows
+ * following the "after" ID and names the cursor of the next window in
+ * "next", null after the last one. Every window is a seek of the primary
+ * key, so walking a whole table costs the same per window however far
+ * it gets. The "fields" parameter selects the written fields. Responses
+ * are written by a streaming JSON generator and carry an entity tag of
+ * the row versions, a conditional GET of an unchanged window or row is
+ * answered with 304 before anything is written. Compression is done by
+ * the server for all JSON responses.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api")
+public class ApiController {
+
+    /**
+     * Rows in a window when no limit is given.
+     */
+    private static final String DEFAULT_LIMIT = "100";
+
+    /**
+     * Largest window.
+     */
+    private static final int MAX_LIMIT = 1000;
+
+    /**
+     * Creates the streaming JSON generators.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Fields of a patient.
+     */
+    private static final JsonFields<Patient> PATIENT =
+            new JsonFields<>(Patient::getId, Patient::getVersion);
+
+    /**
+     * Fields of a doctor. The number of prescriptions is incremented
+     * without a new version, so it is part of the entity tag.
+     */
+    private static final JsonFields<Doctor> DOCTOR =
+            new JsonFields<>(Doctor::getId, doctor ->
+                    doctor.getVersion() + "." + doctor.getCountFormulas());
+
+    /**
+     * Fields of a formula. Doctor and patient names are written too, so
+     * their versions are part of the entity tag.
+     */
+    private static final JsonFields<Formula> FORMULA =
+            new JsonFields<>(Formula::getId, formula -> formula.getVersion()
+                    + "." + formula.getDoctor().getVersion()
+                    + "." + (formula.getPatient() == null
+                    ? null : formula.getPatient().getVersion()));
+
+    static {
+        person(PATIENT).string("number", Patient::getNumber);
+        person(DOCTOR)
+                .string("specialization", Doctor::getSpecialization)
+                .number("countFormulas", Doctor::getCountFormulas);
+        FORMULA.number("version", Formula::getVersion)
+                .string("description", Formula::getDescription)
+                .number("doctorId", formula -> formula.getDoctor().getId())
+                .string("doctorName", Formula::getDoctorName)
+                .number("patientId", formula -> formula.getPatient() == null
+                        ? null : formula.getPatient().getId())
+                .string("patientName", formula -> formula.getPatient() == null
+                        ? null : formula.getPatientName())
+                .string("priority", Formula::getPriority)
+                .string("priorityLabel",
+                        formula -> formula.getPriority().getLabel())
+                .date("creationDate", Formula::getCreationDate)
+                .date("validity", Formula::getValidity);
+    }
+
+    /**
+     * Patient records repository.
+     */
+    private final PatientRepository patientRepository;
+
+    /**
+     * Doctor records repository.
+     */
+    private final DoctorRepository doctorRepository;
+
+    /**
+     * Formula records repository.
+     */
+    private final FormulaRepository formulaRepository;
+
+    /**
+     * Constructor.
+     *
+     * @param patientRepository - patient records repository.
+     * @param doctorRepository  - doctor records repository.
+     * @param formulaRepository - formula records repository.
+     */
+    public ApiController(final PatientRepository patientRepository,
+                         final DoctorRepository doctorRepository,
+                         final FormulaRepository formulaRepository) {
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.formulaRepository = formulaRepository;
+    }
+
+    /**
+     * Window of patients.
+     *
+     * @param after   - ID of the last patient of the previous window.
+     * @param limit   - maximum number of patients.
+     * @param fields  - comma-separated field names, all if empty.
+     * @param request - request, for the conditional GET.
+     * @return patients and the cursor of the next window.
+     */
+    @GetMapping("/patients")
+    public ResponseEntity<StreamingResponseBody> patients(
+            @RequestParam(defaultValue = "0") final long after,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) final int limit,
+            @RequestParam(required = false) final String fields,
+            final WebRequest request) {
+        return list(PATIENT, fields, limit, request, pageable ->
+                patientRepository.findByIdGreaterThanOrderByIdAsc(
+                        after, pageable));
+    }
+
+    /**
+     * One patient.
+     *
+     * @param id      - patient ID.
+     * @param fields  - comma-separated field names, all if empty.
+     * @param request - request, for the conditional GET.
+     * @return patient.
+     */
+    @GetMapping("/patients/{id}")
+    public ResponseEntity<StreamingResponseBody> patient(
+            @PathVariable final long id,
+            @RequestParam(required = false) final String fields,
+            final WebRequest request) {
+        return one(PATIENT, fields, request,
+                patientRepository.findById(id));
+    }
+
+    /**
+     * Window of doctors.
+     *
+     * @param after   - ID of the last doctor of the previous window.
+     * @param limit   - maximum number of doctors.
+     * @param fields  - comma-separated field names, all if empty.
+     * @param request - request, for the conditional GET.
+     * @return doctors and the cursor of the next window.
+     */
+    @GetMapping("/doctors")
+    public ResponseEntity<StreamingResponseBody> doctors(
+            @RequestParam(defaultValue = "0") final long after,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) final int limit,
+            @RequestParam(required = false) final String fields,
+            final WebRequest request) {
+        return list(DOCTOR, fields, limit, request, pageable ->
+                doctorRepository.findByIdGreaterThanOrderByIdAsc(
+                        after, pageable));
+    }
+
+    /**
+     * One doctor.
+     *
+     * @param id      - doctor ID.
+     * @param fields  - comma-separated field names, all if empty.
+     * @param request - request, for the conditional GET.
+     * @return doctor.
+     */
+    @GetMapping("/doctors/{id}")
+    public ResponseEntity<StreamingResponseBody> doctor(
+            @PathVariable final long id,
+            @RequestParam(required = false) final String fields,
+            final WebRequest request) {
+        return one(DOCTOR, fields, request, doctorRepository.findById(id));
+    }
+
+    /**
+     * Window of formulas, with the names of their doctor and patient.
+     *
+     * @param after   - ID of the last formula of the previous window.
+     * @param limit   - maximum number of formulas.
+     * @param fields  - comma-separated field names, all if empty.
+     * @param request - request, for the conditional GET.
+     * @return formulas and the cursor of the next window.
+     */
+    @GetMapping("/formulas")
+    public ResponseEntity<StreamingResponseBody> formulas(
+            @RequestParam(defaultValue = "0") final long after,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) final int limit,
+            @RequestParam(required = false) final String fields,
+            final WebRequest request) {
+        return list(FORMULA, fields, limit, request, pageable ->
+                formulaRepository.findByIdGreaterThanOrderByIdAsc(
+                        after, pageable));
+    }
+
+    /**
+     * One formula.
+     *
+     * @param id      - formula ID.
+     * @param fields  - comma-separated field names, all if empty.
+     * @param request - request, for the conditional GET.
+     * @return formula.
+     */
+    @GetMapping("/formulas/{id}")
+    public ResponseEntity<StreamingResponseBody> formula(
+            @PathVariable final long id,
+            @RequestParam(required = false) final String fields,
+            final WebRequest request) {
+        return one(FORMULA, fields, request,
+                formulaRepository.findWithDoctorAndPatientById(id));
+    }
+
+    /**
+     * Add the fields shared by doctors and patients.
+     *
+     * @param fields - fields of a person type, only the ID added.
+     * @param <T>    - person type.
+     * @return the fields.
+     */
+    private static <T extends Person> JsonFields<T> person(
+            final JsonFields<T> fields) {
+        return fields.number("version", Person::getVersion)
+                .string("lastName", Person::getLastName)
+                .string("name", Person::getName)
+                .string("patronymic", Person::getPatronymic);
+    }
+
+    /**
+     * Answer with a window of rows.
+     *
+     * @param resource - fields of the rows.
+     * @param fields   - comma-separated field names, all if empty.
+     * @param limit    - maximum number of rows.
+     * @param request  - request, for the conditional GET.
+     * @param find     - reads the rows of a window.
+     * @param <T>      - entity.
+     * @return response written while it is sent.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> list(
+            final JsonFields<T> resource,
+            @Nullable final String fields,
+            final int limit,
+            final WebRequest request,
+            final Function<Pageable, List<T>> find) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be from 1 to " + MAX_LIMIT);
+        }
+        List<String> selected = resource.select(fields);
+        // one more row tells whether a next window exists
+        List<T> rows = find.apply(PageRequest.of(0, limit + 1));
+        List<T> window = rows.size() > limit ? rows.subList(0, limit) : rows;
+        Long next = rows.size() > limit
+                ? resource.idOf(window.get(limit - 1)) : null;
+
+        String etag = resource.etag(window, selected, next);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> {
+                    try (JsonGenerator json = JSON_FACTORY.createGenerator(
+                            StreamUtils.nonClosing(out), JsonEncoding.UTF8)) {
+                        json.writeStartObject();
+                        json.writeArrayFieldStart("items");
+                        for (T row : window) {
+                            resource.write(json, row, selected);
+                        }
+                        json.writeEndArray();
+                        json.writeFieldName("next");
+                        if (next == null) {
+                            json.writeNull();
+                        } else {
+                            json.writeNumber(next);
+                        }
+                        json.writeEndObject();
+                    }
+                });
+    }
+
+    /**
+     * Answer with one row.
+     *
+     * @param resource - fields of the row.
+     * @param fields   - comma-separated field names, all if empty.
+     * @param request  - request, for the conditional GET.
+     * @param found    - row if it exists.
+     * @param <T>      - entity.
+     * @return response written while it is sent.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> one(
+            final JsonFields<T> resource,
+            @Nullable final String fields,
+            final WebRequest request,
+            final Optional<T> found) {
+        T row = found.orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND));
+        List<String> selected = resource.select(fields);
+        String etag = resource.etag(Collections.singletonList(row),
+                selected, null);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> {
+                    try (JsonGenerator json = JSON_FACTORY.createGenerator(
+                            StreamUtils.nonClosing(out), JsonEncoding.UTF8)) {
+                        resource.write(json, row, selected);
+                    }
+                });
+    }
+}
@@ -0,0 +1,147 @@
+package com.hospital.application.controller;
+
+import com.hospital.application.entity.ArchivedFormula;
+import com.hospital.application.entity.BaseFormula;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.entity.Priority;
+import com.hospital.application.service.FormulaCsvExporter;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static com.hospital.application.repository.FormulaSpecifications.createdBetween;
+import static com.hospital.application.repository.FormulaSpecifications.descriptionContains;
+import static com.hospital.application.repository.FormulaSpecifications.hasPatientId;
+import static com.hospital.application.repository.FormulaSpecifications.hasPriority;
+import static com.hospital.application.repository.FormulaSpecifications.validBetween;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Download of the formulas journal as CSV, with the same filters
+ * as the formulas table, optionally including the archive. Dates are
+ * given as yyyy-MM-dd.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@RestController
+public class FormulaExportController {
+
+    /**
+     * CSV exporter.
+     */
+    private final FormulaCsvExporter exporter;
+
+    /**
+     * Constructor.
+     *
+     * @param exporter - CSV exporter.
+     */
+    public FormulaExportController(final FormulaCsvExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Stream formulas matching the filters.
+     *
+     * @param description    - text contained in the description.
+     * @param patientId      - patient ID.
+     * @param priority       - status priority, label or constant name.
+     * @param createdFrom    - lower bound of the creation date.
+     * @param createdTo      - upper bound of the creation date.
+     * @param validFrom      - lower bound of the validity date.
+     * @param validTo        - upper bound of the validity date.
+     * @param includeArchive - archived formulas are written too.
+     * @return CSV attachment written while it is sent.
+     */
+    @GetMapping("/export/formulas.csv")
+    public ResponseEntity<StreamingResponseBody> exportFormulas(
+            @RequestParam(required = false) final String description,
+            @RequestParam(required = false) final Long patientId,
+            @RequestParam(required = false) final String priority,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate createdFrom,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate createdTo,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate validFrom,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            final LocalDate validTo,
+            @RequestParam(defaultValue = "false")
+            final boolean includeArchive) {
+        Priority status = parsePriority(priority);
+        Specification<Formula> spec = specification(description, patientId,
+                status, createdFrom, createdTo, validFrom, validTo);
+        Specification<ArchivedFormula> archiveSpec = specification(
+                description, patientId, status, createdFrom, createdTo,
+                validFrom, validTo);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"formulas.csv\"")
+                .contentType(
+                        new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(out -> exporter.export(spec, archiveSpec,
+                        includeArchive, out));
+    }
+
+    /**
+     * Combine the filters into one query condition, empty filters are
+     * skipped.
+     *
+     * @param description - text contained in the description.
+     * @param patientId   - patient ID.
+     * @param priority    - status priority.
+     * @param createdFrom - lower bound of the creation date.
+     * @param createdTo   - upper bound of the creation date.
+     * @param validFrom   - lower bound of the validity date.
+     * @param validTo     - upper bound of the validity date.
+     * @param <T>         - current or archived formula.
+     * @return query condition.
+     */
+    private static <T extends BaseFormula> Specification<T> specification(
+            final String description,
+            final Long patientId,
+            final Priority priority,
+            final LocalDate createdFrom,
+            final LocalDate createdTo,
+            final LocalDate validFrom,
+            final LocalDate validTo) {
+        return Specification
+                .<T>where(descriptionContains(description))
+                .and(hasPatientId(patientId))
+                .and(hasPriority(priority))
+                .and(createdBetween(createdFrom, createdTo))
+                .and(validBetween(validFrom, validTo));
+    }
+
+    /**
+     * Read the priority filter.
+     *
+     * @param priority - label or constant name, may be empty.
+     * @return priority or null for an empty filter.
+     */
+    private static Priority parsePriority(final String priority) {
+        if (priority == null || priority.trim().isEmpty()) {
+            return null;
+        }
+        return Priority.parse(priority).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown priority " + priority));
+    }
+}
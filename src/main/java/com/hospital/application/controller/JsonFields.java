@@ -0,0 +1,207 @@
+package com.hospital.application.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Fields of an entity in the REST API, in the order they are written.
+ * Every field is written straight to a streaming JSON generator, no
+ * intermediate object tree is built.
+ *
+ * @param <T> entity.
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+final class JsonFields<T> {
+
+    /**
+     * Writes the value of one field.
+     *
+     * @param <T> entity.
+     */
+    @FunctionalInterface
+    interface ValueWriter<T> {
+
+        /**
+         * Write the value.
+         *
+         * @param json - generator, the field name is already written.
+         * @param item - entity.
+         * @throws IOException if the value can not be written.
+         */
+        void write(JsonGenerator json, T item) throws IOException;
+    }
+
+    /**
+     * Value writers by field name.
+     */
+    private final Map<String, ValueWriter<T>> writers = new LinkedHashMap<>();
+
+    /**
+     * Reads the ID of an entity.
+     */
+    private final Function<T, Long> id;
+
+    /**
+     * Reads a value changing whenever the written fields change.
+     */
+    private final Function<T, ?> stamp;
+
+    /**
+     * Constructor.
+     *
+     * @param id    - reads the ID of an entity.
+     * @param stamp - reads a value changing whenever the written fields
+     *              change, used for the entity tags.
+     */
+    JsonFields(final Function<T, Long> id, final Function<T, ?> stamp) {
+        this.id = id;
+        this.stamp = stamp;
+        number("id", id);
+    }
+
+    /**
+     * Add a text field.
+     *
+     * @param name  - field name.
+     * @param value - reads the value, may return null.
+     * @return these fields.
+     */
+    JsonFields<T> string(final String name, final Function<T, ?> value) {
+        writers.put(name, (json, item) -> {
+            Object text = value.apply(item);
+            if (text == null) {
+                json.writeNull();
+            } else {
+                json.writeString(text.toString());
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Add a number field.
+     *
+     * @param name  - field name.
+     * @param value - reads the value, may return null.
+     * @return these fields.
+     */
+    JsonFields<T> number(final String name,
+                         final Function<T, ? extends Number> value) {
+        writers.put(name, (json, item) -> {
+            Number number = value.apply(item);
+            if (number == null) {
+                json.writeNull();
+            } else {
+                json.writeNumber(number.longValue());
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Add a date field, written as yyyy-MM-dd.
+     *
+     * @param name  - field name.
+     * @param value - reads the value, may return null.
+     * @return these fields.
+     */
+    JsonFields<T> date(final String name,
+                       final Function<T, LocalDate> value) {
+        return string(name, value);
+    }
+
+    /**
+     * ID of an entity.
+     *
+     * @param item - entity.
+     * @return ID.
+     */
+    Long idOf(final T item) {
+        return id.apply(item);
+    }
+
+    /**
+     * Read the requested fields.
+     *
+     * @param fields - comma-separated field names, all fields if empty.
+     * @return field names in the requested order.
+     * @throws ResponseStatusException if a field is unknown.
+     */
+    List<String> select(@Nullable final String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return new ArrayList<>(writers.keySet());
+        }
+        List<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        for (String name : names) {
+            if (!writers.containsKey(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field " + name + ", known fields are "
+                                + String.join(",", writers.keySet()));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Write an entity as a JSON object.
+     *
+     * @param json   - generator.
+     * @param item   - entity.
+     * @param fields - selected field names.
+     * @throws IOException if the object can not be written.
+     */
+    void write(final JsonGenerator json, final T item,
+               final List<String> fields) throws IOException {
+        json.writeStartObject();
+        for (String name : fields) {
+            json.writeFieldName(name);
+            writers.get(name).write(json, item);
+        }
+        json.writeEndObject();
+    }
+
+    /**
+     * Weak entity tag of a representation, computed from the IDs and
+     * stamps of the entities instead of the written bytes, so it is
+     * known before anything is written.
+     *
+     * @param items  - written entities.
+     * @param fields - selected field names.
+     * @param next   - cursor of the next window, null if none.
+     * @return entity tag.
+     */
+    String etag(final Collection<T> items, final List<String> fields,
+                @Nullable final Long next) {
+        StringBuilder key = new StringBuilder(String.join(",", fields));
+        for (T item : items) {
+            key.append(';').append(id.apply(item))
+                    .append(':').append(stamp.apply(item));
+        }
+        key.append(';').append(next);
+        return "W/\"" + DigestUtils.md5DigestAsHex(
+                key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
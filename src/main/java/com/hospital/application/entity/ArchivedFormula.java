@@ -0,0 +1,63 @@
+package com.hospital.application.entity;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Hospital Application.
+ * <p>
+ * An entity that describes a formula moved to the archive.
+ * Archived formulas keep the ID they had and are not changed any more.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Entity
+@Immutable
+@Table(name = "formula_archive")
+public class ArchivedFormula extends BaseFormula implements Serializable {
+
+    /**
+     * Unique ID field, taken over from the formula.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Default constructor.
+     */
+    public ArchivedFormula() {
+    }
+
+    /**
+     * Function to get value of field {@link ArchivedFormula#id}.
+     *
+     * @return returns ID.
+     */
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Copy of the formula for showing it along with current formulas.
+     *
+     * @return formula marked as archived.
+     */
+    public Formula toFormula() {
+        Formula formula = new Formula();
+        formula.setId(id);
+        formula.setDescription(getDescription());
+        formula.setDoctor(getDoctor());
+        formula.setPatient(getPatient());
+        formula.setPriority(getPriority());
+        formula.setCreationDate(getCreationDate());
+        formula.setValidity(getValidity());
+        formula.setArchived(true);
+        return formula;
+    }
+}
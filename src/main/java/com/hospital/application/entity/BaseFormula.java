@@ -0,0 +1,218 @@
+package com.hospital.application.entity;
+
+import org.apache.lucene.analysis.ru.RussianAnalyzer;
+import org.hibernate.Hibernate;
+import org.hibernate.search.annotations.Analyzer;
+import org.hibernate.search.annotations.Field;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Fields shared by current and archived formulas.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@MappedSuperclass
+public abstract class BaseFormula implements Serializable {
+
+    /**
+     * Formula description, indexed for the full-text search with
+     * Russian stemming.
+     */
+    @NotNull
+    @NotEmpty
+    @Field(analyzer = @Analyzer(impl = RussianAnalyzer.class))
+    private String description;
+
+    /**
+     * Linking to doctor.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private Doctor doctor;
+
+    /**
+     * Linking to patient.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    private Patient patient;
+
+    /**
+     * Status priority, stored as its ordinal.
+     */
+    @NotNull
+    @Enumerated(EnumType.ORDINAL)
+    @Column(columnDefinition = "SMALLINT")
+    private Priority priority;
+
+    /**
+     * Time when the recipe was created and valid.
+     */
+    @DateTimeFormat
+    @NotNull
+    private LocalDate creationDate, validity;
+
+    /**
+     * Default constructor.
+     */
+    public BaseFormula() {
+    }
+
+    /**
+     * Function to get value of ID field.
+     *
+     * @return returns ID.
+     */
+    public abstract Long getId();
+
+    /**
+     * Function to get value of field {@link BaseFormula#description}.
+     *
+     * @return returns formula description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Function to set value of field.
+     *
+     * @param description - formula description.
+     */
+    public void setDescription(final String description) {
+        this.description = description;
+    }
+
+    /**
+     * Function to get value of field {@link BaseFormula#doctor}.
+     *
+     * @return returns doctor.
+     */
+    public Doctor getDoctor() {
+        return doctor;
+    }
+
+    /**
+     * Function to get value of field .
+     *
+     * @return returns full doctor name.
+     */
+    public String getDoctorName() {
+        return doctor.getLastName() + " " + doctor.getName();
+    }
+
+    /**
+     * Function to set value of field.
+     *
+     * @param doctor - entity doctor.
+     */
+    public void setDoctor(final Doctor doctor) {
+        this.doctor = doctor;
+    }
+
+    /**
+     * Function to get value of field {@link BaseFormula#patient}.
+     *
+     * @return returns patient.
+     */
+    public Patient getPatient() {
+        return patient;
+    }
+
+    /**
+     * Function to get value of field.
+     *
+     * @return returns patient name.
+     */
+    public String getPatientName() {
+        return patient.getLastName() + " " + patient.getName();
+    }
+
+    /**
+     * Function to set value of field.
+     *
+     * @param patient - entity patient.
+     */
+    public void setPatient(final Patient patient) {
+        this.patient = patient;
+    }
+
+    /**
+     * Function to get value of field {@link BaseFormula#priority}.
+     *
+     * @return returns status priority.
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Function to set value of field.
+     *
+     * @param priority - status priority.
+     */
+    public void setPriority(final Priority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Function to get value of field {@link BaseFormula#creationDate}.
+     *
+     * @return returns creation date.
+     */
+    public LocalDate getCreationDate() {
+        return creationDate;
+    }
+
+    /**
+     * Function to set value of field.
+     *
+     * @param creationDate - creation date.
+     */
+    public void setCreationDate(final LocalDate creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    /**
+     * Function to get value of field {@link BaseFormula#validity}.
+     *
+     * @return returns validity date.
+     */
+    public LocalDate getValidity() {
+        return validity;
+    }
+
+    /**
+     * Function to set value of field.
+     *
+     * @param validity - validity date.
+     */
+    public void setValidity(final LocalDate validity) {
+        this.validity = validity;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((BaseFormula) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getId() != null ? getId().hashCode() : super.hashCode();
+    }
+}
@@ -1,5 +1,7 @@
 package com.hospital.application.entity;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -14,6 +16,7 @@ import java.io.Serializable;
  * @version 1.0
  */
 @Entity
+@DynamicUpdate
 public class Doctor extends Person implements Serializable {
 
     /**
@@ -25,9 +28,12 @@ public class Doctor extends Person implements Serializable {
 
     /**
      * Fields number of prescriptions written.
+     * Incremented only in the database when a formula is written,
+     * so saving an edited doctor never overwrites it.
      */
     @NotNull
     @NotEmpty
+    @Column(updatable = false)
     private int countFormulas;
 
     /**
@@ -54,14 +60,6 @@ public class Doctor extends Person implements Serializable {
         return specialization;
     }
 
-    /**
-     * Function to set value of field.
-     * increases the number of prescriptions written by 1.
-     */
-    public void addFormulas() {
-        countFormulas++;
-    }
-
     /**
      * Function to get value of field {@link Doctor#countFormulas}.
      *
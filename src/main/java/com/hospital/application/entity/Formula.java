@@ -1,14 +1,11 @@
 package com.hospital.application.entity;
 
-import org.springframework.format.annotation.DateTimeFormat;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.search.annotations.Indexed;
 
 import javax.persistence.*;
-import javax.validation.constraints.NotEmpty;
-import javax.validation.constraints.NotNull;
 import java.io.Serializable;
-import java.time.LocalDate;
-import java.util.Arrays;
-import java.util.List;
 
 /**
  * Hospital Application.
@@ -19,50 +16,39 @@ import java.util.List;
  * @version 1.0
  */
 @Entity
-public class Formula implements Serializable {
-
-    public static final List<String> PRIORITIES = Arrays.asList("Немедленный", "Срочный", "Нормальный");
+@Indexed
+@DynamicUpdate
+public class Formula extends BaseFormula implements Serializable {
 
     /**
      * Unique ID field.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooled-sequence")
+    @GenericGenerator(name = "pooled-sequence",
+            strategy = PooledSequenceGenerator.STRATEGY)
     private Long id;
 
     /**
-     * Formula description.
-     */
-    @NotNull
-    @NotEmpty
-    private String description;
-
-    /**
-     * Linking to doctor.
+     * Version of the row, incremented by every update. A save of a
+     * copy read before another update fails instead of overwriting it.
      */
-    @ManyToOne
-    @JoinColumn(name = "doctor_id", nullable = false)
-    private Doctor doctor;
+    @Version
+    private Long version;
 
     /**
-     * Linking to patient.
+     * Handed to the expiry notifications. Written by the expiry job only
+     * and reset by the database whenever the validity changes, so saves
+     * of the entity never touch it.
      */
-    @ManyToOne
-    @JoinColumn(name = "patient_id")
-    private Patient patient;
+    @Column(name = "expiry_handled", insertable = false, updatable = false)
+    private boolean expiryHandled;
 
     /**
-     * Status priority.
+     * Shown from the archive, not editable.
      */
-    @NotNull
-    private String priority;
-
-    /**
-     * Time when the recipe was created and valid.
-     */
-    @DateTimeFormat
-    @NotNull
-    private LocalDate creationDate, validity;
+    @Transient
+    private boolean archived;
 
     /**
      * Default constructor.
@@ -75,6 +61,7 @@ public class Formula implements Serializable {
      *
      * @return returns ID.
      */
+    @Override
     public Long getId() {
         return id;
     }
@@ -89,128 +76,38 @@ public class Formula implements Serializable {
     }
 
     /**
-     * Function to get value of field {@link Formula#description}.
-     *
-     * @return returns formula description.
-     */
-    public String getDescription() {
-        return description;
-    }
-
-    /**
-     * Function to set value of field.
-     *
-     * @param description - formula description.
-     */
-    public void setDescription(final String description) {
-        this.description = description;
-    }
-
-    /**
-     * Function to get value of field {@link Formula#doctor}.
-     *
-     * @return returns doctor.
-     */
-    public Doctor getDoctor() {
-        return doctor;
-    }
-
-    /**
-     * Function to get value of field .
-     *
-     * @return returns full doctor name.
-     */
-    public String getDoctorName() {
-        return doctor.getLastName() + " " + doctor.getName();
-    }
-
-    /**
-     * Function to set value of field.
-     *
-     * @param doctor - entity doctor.
-     */
-    public void setDoctor(final Doctor doctor) {
-        this.doctor = doctor;
-    }
-
-    /**
-     * Function to get value of field {@link Formula#patient}.
-     *
-     * @return returns patient.
-     */
-    public Patient getPatient() {
-        return patient;
-    }
-
-    /**
-     * Function to get value of field.
+     * Function to get value of field {@link Formula#version}.
      *
-     * @return returns patient name.
+     * @return returns version of the row, null before it is saved.
      */
-    public String getPatientName() {
-        return patient.getLastName() + " " + patient.getName();
+    public Long getVersion() {
+        return version;
     }
 
     /**
-     * Function to set value of field.
-     *
-     * @param patient - entity patient.
-     */
-    public void setPatient(final Patient patient) {
-        this.patient = patient;
-    }
-
-    /**
-     * Function to get value of field {@link Formula#priority}.
-     *
-     * @return returns status priority.
-     */
-    public String getPriority() {
-        return priority;
-    }
-
-    /**
-     * Function to set value of field.
-     *
-     * @param priority - status priority.
-     */
-    public void setPriority(final String priority) {
-        this.priority = priority.trim();
-    }
-
-    /**
-     * Function to get value of field {@link Formula#creationDate}.
-     *
-     * @return returns creation date.
-     */
-    public LocalDate getCreationDate() {
-        return creationDate;
-    }
-
-    /**
-     * Function to set value of field.
+     * Function to get value of field {@link Formula#expiryHandled}.
      *
-     * @param creationDate - creation date.
+     * @return returns true once the expiry of the formula is handled.
      */
-    public void setCreationDate(final LocalDate creationDate) {
-        this.creationDate = creationDate;
+    public boolean isExpiryHandled() {
+        return expiryHandled;
     }
 
     /**
-     * Function to get value of field {@link Formula#validity}.
+     * Function to get value of field {@link Formula#archived}.
      *
-     * @return returns validity date.
+     * @return returns true for a formula shown from the archive.
      */
-    public LocalDate getValidity() {
-        return validity;
+    public boolean isArchived() {
+        return archived;
     }
 
     /**
      * Function to set value of field.
      *
-     * @param validity - validity date.
+     * @param archived - formula is shown from the archive.
      */
-    public void setValidity(final LocalDate validity) {
-        this.validity = validity;
+    public void setArchived(final boolean archived) {
+        this.archived = archived;
     }
 }
@@ -1,5 +1,7 @@
 package com.hospital.application.entity;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -14,6 +16,7 @@ import java.io.Serializable;
  * @version 1.0
  */
 @Entity
+@DynamicUpdate
 public class Patient extends Person implements Serializable {
 
     /**
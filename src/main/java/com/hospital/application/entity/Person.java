@@ -1,9 +1,12 @@
 package com.hospital.application.entity;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.GenericGenerator;
+
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
@@ -23,9 +26,18 @@ public abstract class Person implements Serializable {
      * Unique ID field.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = "pooled-sequence")
+    @GenericGenerator(name = "pooled-sequence",
+            strategy = PooledSequenceGenerator.STRATEGY)
     private Long id;
 
+    /**
+     * Version of the row, incremented by every update. A save of a
+     * copy read before another update fails instead of overwriting it.
+     */
+    @Version
+    private Long version;
+
     /**
      * Fields describing the person's full name.
      */
@@ -57,6 +69,15 @@ public abstract class Person implements Serializable {
         this.id = id;
     }
 
+    /**
+     * Function to get value of field {@link Person#version}.
+     *
+     * @return returns version of the row, null before it is saved.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
     /**
      * Function to set value of field.
      *
@@ -111,6 +132,22 @@ public abstract class Person implements Serializable {
         return patronymic;
     }
 
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((Person) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getId() != null ? getId().hashCode() : super.hashCode();
+    }
+
     @Override
     public String toString() {
         return getLastName() + " " + getName();
@@ -0,0 +1,65 @@
+package com.hospital.application.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Hospital Application.
+ * <p>
+ * ID generator with a database sequence per entity ("patient_seq",
+ * "doctor_seq", "formula_seq"). Every sequence call reserves a block
+ * of IDs (pooled-lo), so inserts do not go to the database for every ID
+ * and can be sent in JDBC batches. The block size is taken from the
+ * {@value #ALLOCATION_SIZE} Hibernate property.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    /**
+     * Generator class name for {@code @GenericGenerator}.
+     */
+    public static final String STRATEGY =
+            "com.hospital.application.entity.PooledSequenceGenerator";
+
+    /**
+     * Hibernate property with the number of IDs reserved per sequence call.
+     */
+    public static final String ALLOCATION_SIZE = "hospital.id.allocation_size";
+
+    /**
+     * Default number of IDs reserved per sequence call.
+     */
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    /**
+     * Suffix of the sequence name after the entity name.
+     */
+    public static final String SEQUENCE_SUFFIX = "_seq";
+
+    @Override
+    public void configure(final Type type,
+                          final Properties params,
+                          final ServiceRegistry serviceRegistry)
+            throws MappingException {
+        Map<?, ?> settings = serviceRegistry
+                .getService(ConfigurationService.class).getSettings();
+        params.setProperty(INCREMENT_PARAM, String.valueOf(
+                ConfigurationHelper.getInt(ALLOCATION_SIZE, settings,
+                        DEFAULT_ALLOCATION_SIZE)));
+        params.setProperty(CONFIG_PREFER_SEQUENCE_PER_ENTITY, "true");
+        params.setProperty(CONFIG_SEQUENCE_PER_ENTITY_SUFFIX, SEQUENCE_SUFFIX);
+        params.setProperty(OPT_PARAM,
+                StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+    }
+}
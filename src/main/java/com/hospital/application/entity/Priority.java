@@ -0,0 +1,75 @@
+package com.hospital.application.entity;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Status priority of a formula, most urgent first.
+ * <p>
+ * Stored as the ordinal in a SMALLINT column, so sorting the column
+ * sorts by urgency. Constants must keep their order, a new one is
+ * inserted at its place with a migration renumbering the stored values.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public enum Priority {
+
+    /**
+     * Dispensed at once.
+     */
+    IMMEDIATE("Немедленный"),
+
+    /**
+     * Dispensed the same day.
+     */
+    URGENT("Срочный"),
+
+    /**
+     * Dispensed in turn.
+     */
+    NORMAL("Нормальный");
+
+    /**
+     * Name shown to the users.
+     */
+    private final String label;
+
+    /**
+     * Constructor.
+     *
+     * @param label - name shown to the users.
+     */
+    Priority(final String label) {
+        this.label = label;
+    }
+
+    /**
+     * Function to get value of field {@link Priority#label}.
+     *
+     * @return returns name shown to the users.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Find the priority by its name shown to the users or by the name
+     * of the constant, ignoring case.
+     *
+     * @param text - label or constant name.
+     * @return priority if the text names one.
+     */
+    public static Optional<Priority> parse(final String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        String trimmed = text.trim();
+        return Arrays.stream(values())
+                .filter(priority -> priority.label.equalsIgnoreCase(trimmed)
+                        || priority.name().equalsIgnoreCase(trimmed))
+                .findFirst();
+    }
+}
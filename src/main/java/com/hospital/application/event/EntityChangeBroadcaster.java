@@ -0,0 +1,279 @@
+package com.hospital.application.event;
+
+import com.vaadin.flow.shared.Registration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Application-wide bus forwarding committed entity changes to the open
+ * UI sessions.
+ * <p>
+ * The changes of a transaction are collected while it runs and forwarded
+ * once after its commit as {@link EntityChanges}, so a chunk of an import
+ * inserting thousands of rows reaches every session as a single refresh.
+ * Changes made without a transaction are forwarded at once. Forwarding
+ * runs on a worker of the bus, never in the committing thread: the
+ * updated rows are read there once per transaction, with their
+ * associations, by an entity manager of their own, and every session
+ * receives its own detached copies.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+public class EntityChangeBroadcaster {
+
+    /**
+     * Updates of one type in a transaction forwarded one by one, more
+     * refresh the tables of the type as a whole.
+     */
+    private static final int MAX_UPDATES = 50;
+
+    /**
+     * Registered receivers.
+     */
+    private final List<Consumer<EntityChanges>> listeners
+            = new CopyOnWriteArrayList<>();
+
+    /**
+     * Factory of the entity managers reading the committed rows.
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Worker forwarding the changes, in the order of the commits.
+     */
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param entityManagerFactory - factory of the entity managers
+     *                             reading the committed rows.
+     */
+    public EntityChangeBroadcaster(
+            final EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("entity-changes-");
+        executor.initialize();
+    }
+
+    /**
+     * Register a receiver of committed changes.
+     *
+     * @param listener - receiver.
+     * @return registration for removing the receiver.
+     */
+    public Registration register(final Consumer<EntityChanges> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Collect a change of the current transaction, or forward it at once
+     * when there is none.
+     *
+     * @param event - persistence event.
+     */
+    @EventListener
+    public void onEntityChanged(final EntityChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending().add(event, idOf(event));
+        } else {
+            Batch batch = new Batch();
+            batch.add(event, idOf(event));
+            forwardLater(batch);
+        }
+    }
+
+    /**
+     * Refresh the tables of an entity type as a whole, for rows changed
+     * without the entity manager, e.g. by JDBC.
+     *
+     * @param type - changed entity type.
+     */
+    public void reload(final Class<?> type) {
+        Batch batch = new Batch();
+        batch.reloaded.add(type);
+        forwardLater(batch);
+    }
+
+    /**
+     * Stop the worker.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * ID of a changed entity.
+     *
+     * @param event - persistence event.
+     * @return entity ID.
+     */
+    private Object idOf(final EntityChangedEvent event) {
+        return entityManagerFactory.getPersistenceUnitUtil()
+                .getIdentifier(event.getEntity());
+    }
+
+    /**
+     * Changes of the current transaction, forwarded after its commit.
+     *
+     * @return changes collected so far.
+     */
+    private Batch pending() {
+        Batch batch = (Batch) TransactionSynchronizationManager
+                .getResource(this);
+        if (batch != null) {
+            return batch;
+        }
+        Batch created = new Batch();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(final int status) {
+                        TransactionSynchronizationManager
+                                .unbindResourceIfPossible(
+                                        EntityChangeBroadcaster.this);
+                        if (status == TransactionSynchronization
+                                .STATUS_COMMITTED) {
+                            forwardLater(created);
+                        }
+                    }
+                });
+        return created;
+    }
+
+    /**
+     * Hand collected changes to the worker.
+     *
+     * @param batch - collected changes.
+     */
+    private void forwardLater(final Batch batch) {
+        executor.execute(() -> forward(batch));
+    }
+
+    /**
+     * Read the updated rows and forward the changes to all receivers.
+     *
+     * @param batch - collected changes.
+     */
+    private void forward(final Batch batch) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        Set<Class<?>> reloaded = new HashSet<>(batch.reloaded);
+        List<Object> committed = new ArrayList<>();
+        EntityManager entityManager =
+                entityManagerFactory.createEntityManager();
+        try {
+            batch.updated.forEach((type, ids) -> {
+                List<?> rows = findAll(entityManager, type, ids);
+                if (rows.size() < ids.size()) {
+                    // deleted since, the tables drop them on a refresh
+                    reloaded.add(type);
+                } else {
+                    committed.addAll(rows);
+                }
+            });
+        } finally {
+            entityManager.close();
+        }
+        EntityChanges changes = new EntityChanges(reloaded, committed);
+        listeners.forEach(listener -> listener.accept(changes));
+    }
+
+    /**
+     * Read committed rows with all their to-one associations, so they
+     * can be shown after the entity manager is closed.
+     *
+     * @param entityManager - entity manager of the worker.
+     * @param type          - entity type.
+     * @param ids           - row IDs.
+     * @param <T>           - entity type.
+     * @return rows still existing.
+     */
+    private static <T> List<T> findAll(final EntityManager entityManager,
+                                       final Class<T> type,
+                                       final Set<Object> ids) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(type);
+        EntityGraph<T> graph = entityManager.createEntityGraph(type);
+        entity.getSingularAttributes().stream()
+                .filter(Attribute::isAssociation)
+                .forEach(attribute ->
+                        graph.addAttributeNodes(attribute.getName()));
+        return entityManager.createQuery("select e from " + entity.getName()
+                + " e where e.id in :ids", type)
+                .setParameter("ids", ids)
+                .setHint("javax.persistence.fetchgraph", graph)
+                .getResultList();
+    }
+
+    /**
+     * Changes collected in one transaction. Only the types of inserted
+     * and deleted rows and the IDs of a few updated rows are kept, so the
+     * batch stays small however many rows the transaction writes.
+     */
+    private static final class Batch {
+
+        /**
+         * Entity types refreshed as a whole.
+         */
+        private final Set<Class<?>> reloaded = new HashSet<>();
+
+        /**
+         * IDs of updated rows by type.
+         */
+        private final Map<Class<?>, Set<Object>> updated = new HashMap<>();
+
+        /**
+         * Add a change.
+         *
+         * @param event - persistence event.
+         * @param id    - ID of the changed entity.
+         */
+        private void add(final EntityChangedEvent event, final Object id) {
+            Class<?> type = event.getEntity().getClass();
+            if (reloaded.contains(type)) {
+                return;
+            }
+            Set<Object> ids = updated.computeIfAbsent(type,
+                    key -> new LinkedHashSet<>());
+            if (event.getChangeType() == EntityChangedEvent.ChangeType.UPDATED
+                    && ids.size() < MAX_UPDATES) {
+                ids.add(id);
+            } else {
+                updated.remove(type);
+                reloaded.add(type);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hospital.application.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Event published when an entity has been inserted, updated or deleted.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class EntityChangedEvent extends ApplicationEvent {
+
+    /**
+     * Kind of change.
+     */
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * Kind of change.
+     */
+    private final ChangeType changeType;
+
+    /**
+     * Property values before an update, by property name.
+     */
+    private final Map<String, Object> previousState;
+
+    /**
+     * Constructor.
+     *
+     * @param entity     - changed entity.
+     * @param changeType - kind of change.
+     */
+    public EntityChangedEvent(final Object entity,
+                              final ChangeType changeType) {
+        this(entity, changeType, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param entity        - changed entity.
+     * @param changeType    - kind of change.
+     * @param previousState - property values before an update or null.
+     */
+    public EntityChangedEvent(final Object entity,
+                              final ChangeType changeType,
+                              final Map<String, Object> previousState) {
+        super(entity);
+        this.changeType = changeType;
+        this.previousState = previousState == null
+                ? null
+                : Collections.unmodifiableMap(previousState);
+    }
+
+    /**
+     * Function to get the changed entity.
+     *
+     * @return returns changed entity.
+     */
+    public Object getEntity() {
+        return getSource();
+    }
+
+    /**
+     * Function to get value of field {@link EntityChangedEvent#changeType}.
+     *
+     * @return returns kind of change.
+     */
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * Function to get value of field {@link EntityChangedEvent#previousState}.
+     *
+     * @return returns property values before an update, null when
+     * they are unknown or the change is not an update.
+     */
+    public Map<String, Object> getPreviousState() {
+        return previousState;
+    }
+}
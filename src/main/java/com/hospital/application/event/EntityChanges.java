@@ -0,0 +1,94 @@
+package com.hospital.application.event;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.util.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Committed changes of one transaction, coalesced for the open UI
+ * sessions. Inserts, deletes and large numbers of updates only name the
+ * changed entity type, a table showing it is refreshed once; a few
+ * updates are kept one by one as their committed rows, so they are
+ * replaced in place.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public final class EntityChanges {
+
+    /**
+     * Entity types whose tables are refreshed as a whole.
+     */
+    private final Set<Class<?>> reloaded;
+
+    /**
+     * Committed rows of the updated entities of the other types, detached
+     * and never handed out themselves.
+     */
+    private final List<Object> updated;
+
+    /**
+     * Constructor.
+     *
+     * @param reloaded - entity types whose tables are refreshed.
+     * @param updated  - committed rows of the other types, detached.
+     */
+    EntityChanges(final Set<Class<?>> reloaded, final List<Object> updated) {
+        this.reloaded = Collections.unmodifiableSet(reloaded);
+        this.updated = Collections.unmodifiableList(updated);
+    }
+
+    /**
+     * Check whether a table of an entity type must be refreshed as
+     * a whole.
+     *
+     * @param type - entity type.
+     * @return true if rows of the type were inserted, deleted or updated
+     * in bulk.
+     */
+    public boolean isReloaded(final Class<?> type) {
+        return reloaded.stream().anyMatch(type::isAssignableFrom);
+    }
+
+    /**
+     * Committed rows of the updated entities of a type.
+     *
+     * @param type - entity type.
+     * @param <T>  - entity type.
+     * @return new detached copies on every call, so every session gets
+     * instances of its own.
+     */
+    public <T> List<T> getUpdated(final Class<T> type) {
+        return updated.stream()
+                .filter(type::isInstance)
+                .map(row -> type.cast(copy(row)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Deep copy of a detached row, read by the class loader of its type.
+     *
+     * @param row - detached row.
+     * @return copy.
+     */
+    private static Object copy(final Object row) {
+        byte[] bytes = SerializationUtils.serialize(row);
+        try (ObjectInputStream in = new ConfigurableObjectInputStream(
+                new ByteArrayInputStream(bytes),
+                row.getClass().getClassLoader())) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException exception) {
+            throw new IllegalStateException(
+                    "Can not copy " + row.getClass().getName(), exception);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.hospital.application.event;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hospital.application.event.EntityChangedEvent.ChangeType.CREATED;
+import static com.hospital.application.event.EntityChangedEvent.ChangeType.DELETED;
+import static com.hospital.application.event.EntityChangedEvent.ChangeType.UPDATED;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Turns Hibernate insert, update and delete notifications into
+ * {@link EntityChangedEvent}s. Listeners annotated with
+ * {@code @TransactionalEventListener} receive them after commit.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+public class PersistenceEventPublisher implements PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+
+    /**
+     * Factory whose sessions are observed.
+     */
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Spring event publisher.
+     */
+    private final transient ApplicationEventPublisher publisher;
+
+    /**
+     * Constructor.
+     *
+     * @param entityManagerFactory - factory whose sessions are observed.
+     * @param publisher            - spring event publisher.
+     */
+    public PersistenceEventPublisher(
+            final EntityManagerFactory entityManagerFactory,
+            final ApplicationEventPublisher publisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Register this listener in Hibernate.
+     */
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(final PostInsertEvent event) {
+        publisher.publishEvent(new EntityChangedEvent(event.getEntity(), CREATED));
+    }
+
+    @Override
+    public void onPostUpdate(final PostUpdateEvent event) {
+        publisher.publishEvent(new EntityChangedEvent(event.getEntity(),
+                UPDATED, previousState(event)));
+    }
+
+    @Override
+    public void onPostDelete(final PostDeleteEvent event) {
+        publisher.publishEvent(new EntityChangedEvent(event.getEntity(), DELETED));
+    }
+
+    /**
+     * Property values of an updated entity before the update.
+     *
+     * @param event - update notification.
+     * @return values by property name, null when the session
+     * did not load them.
+     */
+    private static Map<String, Object> previousState(
+            final PostUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            return null;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        Map<String, Object> state = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            state.put(names[i], oldState[i]);
+        }
+        return state;
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(final EntityPersister persister) {
+        return false;
+    }
+}
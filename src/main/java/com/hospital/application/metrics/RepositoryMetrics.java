@@ -0,0 +1,124 @@
+package com.hospital.application.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Times every call of the Spring Data repositories.
+ * <p>
+ * An interceptor is added to the proxy of every repository, so derived,
+ * annotated, custom fragment and inherited JpaRepository methods are all
+ * recorded as "hospital.repository" with the repository interface, the
+ * method and the thrown exception as tags.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+public class RepositoryMetrics implements BeanPostProcessor {
+
+    /**
+     * Name of the timer.
+     */
+    public static final String TIMER = "hospital.repository";
+
+    /**
+     * Registry of the meters, resolved on the first call: a post
+     * processor is created before the registry.
+     */
+    private final ObjectProvider<MeterRegistry> registry;
+
+    /**
+     * Resolved registry of the meters.
+     */
+    private volatile MeterRegistry meters;
+
+    /**
+     * Constructor.
+     *
+     * @param registry - registry of the meters.
+     */
+    public RepositoryMetrics(final ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(final Object bean,
+                                                  final String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean)
+                    .addRepositoryFactoryCustomizer(factory -> factory
+                            .addRepositoryProxyPostProcessor((proxy, info) ->
+                                    proxy.addAdvice(new Interceptor(
+                                            info.getRepositoryInterface()
+                                                    .getSimpleName()))));
+        }
+        return bean;
+    }
+
+    /**
+     * Resolve the registry of the meters.
+     *
+     * @return registry or null while it is not created yet.
+     */
+    private MeterRegistry meters() {
+        MeterRegistry result = meters;
+        if (result == null) {
+            result = registry.getIfAvailable();
+            meters = result;
+        }
+        return result;
+    }
+
+    /**
+     * Timing interceptor of one repository.
+     */
+    private final class Interceptor implements MethodInterceptor {
+
+        /**
+         * Name of the repository interface.
+         */
+        private final String repository;
+
+        /**
+         * Constructor.
+         *
+         * @param repository - name of the repository interface.
+         */
+        private Interceptor(final String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(final MethodInvocation invocation)
+                throws Throwable {
+            MeterRegistry meters = meters();
+            if (meters == null) {
+                return invocation.proceed();
+            }
+            Timer.Sample sample = Timer.start(meters);
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                sample.stop(Timer.builder(TIMER)
+                        .description("Calls of the data repositories")
+                        .tag("repository", repository)
+                        .tag("method", invocation.getMethod().getName())
+                        .tag("exception", exception)
+                        .register(meters));
+            }
+        }
+    }
+}
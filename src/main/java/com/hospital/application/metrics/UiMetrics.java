@@ -0,0 +1,62 @@
+package com.hospital.application.metrics;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Gauges of the open Vaadin sessions and UIs.
+ * <p>
+ * "hospital.ui.sessions" is the number of live sessions,
+ * "hospital.ui.active" the number of attached UIs, one per open
+ * browser tab.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+public class UiMetrics implements VaadinServiceInitListener {
+
+    /**
+     * Number of live sessions.
+     */
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    /**
+     * Number of attached UIs.
+     */
+    private final AtomicInteger uis = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param registry - registry of the meters.
+     */
+    public UiMetrics(final MeterRegistry registry) {
+        Gauge.builder("hospital.ui.sessions", sessions, AtomicInteger::get)
+                .description("Live Vaadin sessions")
+                .register(registry);
+        Gauge.builder("hospital.ui.active", uis, AtomicInteger::get)
+                .description("Attached Vaadin UIs")
+                .register(registry);
+    }
+
+    @Override
+    public void serviceInit(final ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(
+                init -> sessions.incrementAndGet());
+        event.getSource().addSessionDestroyListener(
+                destroy -> sessions.decrementAndGet());
+        event.getSource().addUIInitListener(init -> {
+            uis.incrementAndGet();
+            init.getUI().addDetachListener(
+                    detach -> uis.decrementAndGet());
+        });
+    }
+}
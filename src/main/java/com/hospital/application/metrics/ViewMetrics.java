@@ -0,0 +1,85 @@
+package com.hospital.application.metrics;
+
+import com.vaadin.flow.router.Route;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Times the construction of the routed views.
+ * <p>
+ * Views are created by the Spring bean factory on navigation, so the
+ * time from the start of the instantiation to the end of the
+ * initialization covers the constructor with all its queries and the
+ * injection. It is recorded as "hospital.view.construction" with the
+ * route as a tag.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+public class ViewMetrics implements InstantiationAwareBeanPostProcessor {
+
+    /**
+     * Name of the timer.
+     */
+    public static final String TIMER = "hospital.view.construction";
+
+    /**
+     * Start times of the views being created by the current thread,
+     * by bean name.
+     */
+    private final ThreadLocal<Map<String, Long>> starts =
+            ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Registry of the meters, resolved on the first view: a post
+     * processor is created before the registry.
+     */
+    private final ObjectProvider<MeterRegistry> registry;
+
+    /**
+     * Constructor.
+     *
+     * @param registry - registry of the meters.
+     */
+    public ViewMetrics(final ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(final Class<?> beanClass,
+                                                 final String beanName) {
+        if (beanClass.isAnnotationPresent(Route.class)) {
+            starts.get().put(beanName, System.nanoTime());
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean,
+                                                 final String beanName) {
+        Long start = starts.get().remove(beanName);
+        if (start == null) {
+            return bean;
+        }
+        MeterRegistry meters = registry.getIfAvailable();
+        if (meters != null) {
+            Route route = bean.getClass().getAnnotation(Route.class);
+            Timer.builder(TIMER)
+                    .description("Construction of the routed views")
+                    .tag("route", route == null ? "" : route.value())
+                    .register(meters)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.ArchivedFormula;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Bean repository for ArchivedFormula.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public interface ArchivedFormulaRepository
+        extends JpaRepository<ArchivedFormula, Long>,
+        JpaSpecificationExecutor<ArchivedFormula>,
+        ArchivedFormulaRepositoryCustom {
+
+    /**
+     * Page of the archived prescription history of a patient, with the
+     * doctor.
+     *
+     * @param patientId - patient ID.
+     * @param pageable  - window and ordering.
+     * @return archived formulas of the patient.
+     */
+    @EntityGraph(attributePaths = {"doctor"})
+    List<ArchivedFormula> findByPatientId(Long patientId, Pageable pageable);
+
+    /**
+     * Number of archived formulas of a patient.
+     *
+     * @param patientId - patient ID.
+     * @return number of archived formulas.
+     */
+    long countByPatientId(Long patientId);
+
+    /**
+     * Number of archived formulas per doctor.
+     *
+     * @return pairs of doctor ID and count.
+     */
+    @Query("select f.doctor.id, count(f) from ArchivedFormula f"
+            + " group by f.doctor.id")
+    List<Object[]> countGroupedByDoctor();
+
+    /**
+     * Number of archived formulas per priority.
+     *
+     * @return pairs of priority and count.
+     */
+    @Query("select f.priority, count(f) from ArchivedFormula f"
+            + " group by f.priority")
+    List<Object[]> countGroupedByPriority();
+
+    /**
+     * Number of archived formulas per creation date.
+     *
+     * @return pairs of creation date and count.
+     */
+    @Query("select f.creationDate, count(f) from ArchivedFormula f"
+            + " group by f.creationDate")
+    List<Object[]> countGroupedByCreationDate();
+
+    /**
+     * Number of archived formulas per validity date.
+     *
+     * @return pairs of validity date and count.
+     */
+    @Query("select f.validity, count(f) from ArchivedFormula f"
+            + " group by f.validity")
+    List<Object[]> countGroupedByValidity();
+}
@@ -0,0 +1,69 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.ArchivedFormula;
+import com.hospital.application.entity.BaseFormula;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Queries of the archived formula repository written by hand.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public interface ArchivedFormulaRepositoryCustom {
+
+    /**
+     * Stream archived formulas with their doctor and patient in ID order.
+     * Rows are read from an open cursor and detached as they are
+     * returned, so the memory used does not depend on the number of rows.
+     * Must be called in a transaction and the stream must be closed.
+     *
+     * @param spec - filter condition, may be null.
+     * @return stream of detached archived formulas.
+     */
+    Stream<ArchivedFormula> streamAll(
+            @Nullable Specification<ArchivedFormula> spec);
+
+    /**
+     * Archived formulas following a known row in the key order,
+     * with their doctor and patient.
+     *
+     * @param spec      - filter condition, may be null.
+     * @param keyset    - key ordering.
+     * @param direction - direction of the ordering.
+     * @param after     - last row of the previous window, null for the first.
+     * @param limit     - maximum number of rows.
+     * @return archived formulas in the key order.
+     */
+    List<ArchivedFormula> findNext(
+            @Nullable Specification<ArchivedFormula> spec,
+            FormulaKeyset keyset,
+            Sort.Direction direction,
+            @Nullable BaseFormula after,
+            int limit);
+
+    /**
+     * Archived formulas at an offset of the key order, with their doctor and
+     * patient. Only the database reads the skipped rows.
+     *
+     * @param spec      - filter condition, may be null.
+     * @param keyset    - key ordering.
+     * @param direction - direction of the ordering.
+     * @param offset    - number of skipped rows.
+     * @param limit     - maximum number of rows.
+     * @return archived formulas in the key order.
+     */
+    List<ArchivedFormula> findAt(
+            @Nullable Specification<ArchivedFormula> spec,
+            FormulaKeyset keyset,
+            Sort.Direction direction,
+            int offset,
+            int limit);
+}
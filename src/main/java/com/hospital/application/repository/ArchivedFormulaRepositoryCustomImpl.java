@@ -0,0 +1,75 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.ArchivedFormula;
+import com.hospital.application.entity.BaseFormula;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Implementation of {@link ArchivedFormulaRepositoryCustom}.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class ArchivedFormulaRepositoryCustomImpl
+        implements ArchivedFormulaRepositoryCustom {
+
+    /**
+     * Shared entity manager of the current transaction.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rows read from the database per round trip.
+     */
+    private final int fetchSize;
+
+    /**
+     * Constructor.
+     *
+     * @param fetchSize - rows read from the database per round trip.
+     */
+    public ArchivedFormulaRepositoryCustomImpl(
+            @Value("${hospital.export.fetch-size:500}") final int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<ArchivedFormula> streamAll(
+            @Nullable final Specification<ArchivedFormula> spec) {
+        return FormulaQueries.stream(entityManager, ArchivedFormula.class,
+                spec, fetchSize);
+    }
+
+    @Override
+    public List<ArchivedFormula> findNext(
+            @Nullable final Specification<ArchivedFormula> spec,
+            final FormulaKeyset keyset,
+            final Sort.Direction direction,
+            @Nullable final BaseFormula after,
+            final int limit) {
+        return FormulaQueries.findNext(entityManager, ArchivedFormula.class,
+                spec, keyset, direction, after, limit);
+    }
+
+    @Override
+    public List<ArchivedFormula> findAt(
+            @Nullable final Specification<ArchivedFormula> spec,
+            final FormulaKeyset keyset,
+            final Sort.Direction direction,
+            final int offset,
+            final int limit) {
+        return FormulaQueries.findAt(entityManager, ArchivedFormula.class,
+                spec, keyset, direction, offset, limit);
+    }
+}
@@ -1,7 +1,14 @@
 package com.hospital.application.repository;
 
 import com.hospital.application.entity.Doctor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 /**
  * Hospital Application.
@@ -12,4 +19,27 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @version 1.0
  */
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+
+    /**
+     * Increase the number of prescriptions written by the doctor by 1
+     * with a single update statement.
+     *
+     * @param id - doctor ID.
+     * @return number of updated rows.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Doctor d set d.countFormulas = d.countFormulas + 1"
+            + " where d.id = :id")
+    int incrementCountFormulas(@Param("id") Long id);
+
+    /**
+     * Window of doctors following an ID in the ID order, read
+     * from the primary key index whatever the position of the window.
+     *
+     * @param id       - ID of the last doctor of the previous window.
+     * @param pageable - window size, its ordering is ignored.
+     * @return doctors in the ID order.
+     */
+    List<Doctor> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
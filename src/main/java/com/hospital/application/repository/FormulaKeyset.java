@@ -0,0 +1,95 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.BaseFormula;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Orderings of current or archived formulas that can be paged by key:
+ * a date column followed by the ID, both backed by a (date, id) index.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public enum FormulaKeyset {
+
+    /**
+     * By creation date.
+     */
+    CREATION_DATE("creationDate", BaseFormula::getCreationDate),
+
+    /**
+     * By validity date.
+     */
+    VALIDITY("validity", BaseFormula::getValidity);
+
+    /**
+     * Date property name.
+     */
+    private final String property;
+
+    /**
+     * Reads the date of a formula.
+     */
+    private final Function<BaseFormula, LocalDate> value;
+
+    /**
+     * Constructor.
+     *
+     * @param property - date property name.
+     * @param value    - reads the date of a formula.
+     */
+    FormulaKeyset(final String property,
+                  final Function<BaseFormula, LocalDate> value) {
+        this.property = property;
+        this.value = value;
+    }
+
+    /**
+     * Function to get value of field {@link FormulaKeyset#property}.
+     *
+     * @return returns date property name.
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Date of a formula.
+     *
+     * @param formula - formula.
+     * @return date of the key.
+     */
+    public LocalDate dateOf(final BaseFormula formula) {
+        return value.apply(formula);
+    }
+
+    /**
+     * Ordering of the key.
+     *
+     * @param direction - direction of both columns.
+     * @return date, then ID.
+     */
+    public Sort sort(final Sort.Direction direction) {
+        return Sort.by(new Sort.Order(direction, property),
+                new Sort.Order(direction, "id"));
+    }
+
+    /**
+     * Find the key of a date property.
+     *
+     * @param property - property name.
+     * @return key if the property has one.
+     */
+    public static Optional<FormulaKeyset> ofProperty(final String property) {
+        return Arrays.stream(values())
+                .filter(keyset -> keyset.property.equals(property))
+                .findFirst();
+    }
+}
@@ -0,0 +1,216 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.BaseFormula;
+import org.springframework.data.domain.Sort;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Criteria queries shared by the current and the archived formulas.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+final class FormulaQueries {
+
+    /**
+     * Utility class.
+     */
+    private FormulaQueries() {
+    }
+
+    /**
+     * Stream formulas with their doctor and patient in ID order, detached
+     * as they are returned.
+     *
+     * @param entityManager - entity manager.
+     * @param type          - current or archived formula class.
+     * @param spec          - filter condition, may be null.
+     * @param fetchSize     - rows read from the database per round trip.
+     * @param <T>           - current or archived formula.
+     * @return stream of detached formulas, to be closed.
+     */
+    static <T extends BaseFormula> Stream<T> stream(
+            final EntityManager entityManager,
+            final Class<T> type,
+            @Nullable final Specification<T> spec,
+            final int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        List<Predicate> predicates = select(spec, root, query, cb);
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .peek(formula -> detach(entityManager, formula));
+    }
+
+    /**
+     * Formulas following a known row in the key order.
+     *
+     * @param entityManager - entity manager.
+     * @param type          - current or archived formula class.
+     * @param spec          - filter condition, may be null.
+     * @param keyset        - key ordering.
+     * @param direction     - direction of the ordering.
+     * @param after         - last row of the previous window or null.
+     * @param limit         - maximum number of rows.
+     * @param <T>           - current or archived formula.
+     * @return formulas in the key order.
+     */
+    static <T extends BaseFormula> List<T> findNext(
+            final EntityManager entityManager,
+            final Class<T> type,
+            @Nullable final Specification<T> spec,
+            final FormulaKeyset keyset,
+            final Sort.Direction direction,
+            @Nullable final BaseFormula after,
+            final int limit) {
+        return find(entityManager, type, spec, keyset, direction, after, 0,
+                limit);
+    }
+
+    /**
+     * Formulas at an offset of the key order. The skipped rows are read
+     * by the database only, so the cost grows with the offset but the
+     * memory used does not.
+     *
+     * @param entityManager - entity manager.
+     * @param type          - current or archived formula class.
+     * @param spec          - filter condition, may be null.
+     * @param keyset        - key ordering.
+     * @param direction     - direction of the ordering.
+     * @param offset        - number of skipped rows.
+     * @param limit         - maximum number of rows.
+     * @param <T>           - current or archived formula.
+     * @return formulas in the key order.
+     */
+    static <T extends BaseFormula> List<T> findAt(
+            final EntityManager entityManager,
+            final Class<T> type,
+            @Nullable final Specification<T> spec,
+            final FormulaKeyset keyset,
+            final Sort.Direction direction,
+            final int offset,
+            final int limit) {
+        return find(entityManager, type, spec, keyset, direction, null,
+                offset, limit);
+    }
+
+    /**
+     * Formulas following a known row in the key order, after skipping
+     * some of them.
+     *
+     * @param entityManager - entity manager.
+     * @param type          - current or archived formula class.
+     * @param spec          - filter condition, may be null.
+     * @param keyset        - key ordering.
+     * @param direction     - direction of the ordering.
+     * @param after         - last row of the previous window or null.
+     * @param offset        - number of skipped rows.
+     * @param limit         - maximum number of rows.
+     * @param <T>           - current or archived formula.
+     * @return formulas in the key order.
+     */
+    private static <T extends BaseFormula> List<T> find(
+            final EntityManager entityManager,
+            final Class<T> type,
+            @Nullable final Specification<T> spec,
+            final FormulaKeyset keyset,
+            final Sort.Direction direction,
+            @Nullable final BaseFormula after,
+            final int offset,
+            final int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        List<Predicate> predicates = select(spec, root, query, cb);
+        Path<LocalDate> date = root.get(keyset.getProperty());
+        Path<Long> id = root.get("id");
+        if (after != null) {
+            LocalDate lastDate = keyset.dateOf(after);
+            Long lastId = after.getId();
+            if (direction.isAscending()) {
+                predicates.add(cb.greaterThanOrEqualTo(date, lastDate));
+                predicates.add(cb.or(
+                        cb.greaterThan(date, lastDate),
+                        cb.greaterThan(id, lastId)));
+            } else {
+                predicates.add(cb.lessThanOrEqualTo(date, lastDate));
+                predicates.add(cb.or(
+                        cb.lessThan(date, lastDate),
+                        cb.lessThan(id, lastId)));
+            }
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(direction.isAscending()
+                ? Arrays.asList(cb.asc(date), cb.asc(id))
+                : Arrays.asList(cb.desc(date), cb.desc(id)));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Remove a formula and its fetched doctor and patient from
+     * the persistence context, they are fully loaded already.
+     *
+     * @param entityManager - entity manager.
+     * @param formula       - formula.
+     */
+    private static void detach(final EntityManager entityManager,
+                               final BaseFormula formula) {
+        entityManager.detach(formula);
+        entityManager.detach(formula.getDoctor());
+        if (formula.getPatient() != null) {
+            entityManager.detach(formula.getPatient());
+        }
+    }
+
+    /**
+     * Select formulas with their doctor and patient.
+     *
+     * @param spec  - filter condition, may be null.
+     * @param root  - formula root.
+     * @param query - query.
+     * @param cb    - criteria builder.
+     * @param <T>   - current or archived formula.
+     * @return conditions of the filter, to be extended.
+     */
+    static <T extends BaseFormula> List<Predicate> select(
+            @Nullable final Specification<T> spec,
+            final Root<T> root,
+            final CriteriaQuery<T> query,
+            final CriteriaBuilder cb) {
+        root.fetch("doctor", JoinType.LEFT);
+        root.fetch("patient", JoinType.LEFT);
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        return predicates;
+    }
+}
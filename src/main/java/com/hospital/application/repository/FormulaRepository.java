@@ -1,7 +1,19 @@
 package com.hospital.application.repository;
 
 import com.hospital.application.entity.Formula;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Hospital Application.
@@ -11,5 +23,118 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
  * @version 1.0
  */
-public interface FormulaRepository extends JpaRepository<Formula, Long> {
+public interface FormulaRepository extends JpaRepository<Formula, Long>,
+        JpaSpecificationExecutor<Formula>, FormulaRepositoryCustom {
+
+    /**
+     * Page of formulas for the grid. Doctor and patient are fetched
+     * with the formulas in a single join query, their names are shown
+     * in every row.
+     *
+     * @param spec     - filter condition, may be null.
+     * @param pageable - window and ordering.
+     * @return page of formulas.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    Page<Formula> findAll(@Nullable Specification<Formula> spec,
+                          Pageable pageable);
+
+    /**
+     * Formula with its doctor and patient, for refreshing a single row.
+     *
+     * @param id - formula ID.
+     * @return formula if it still exists.
+     */
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    Optional<Formula> findWithDoctorAndPatientById(Long id);
+
+    /**
+     * Window of formulas following an ID in the ID order, with their
+     * doctor and patient, read from the primary key index whatever the
+     * position of the window.
+     *
+     * @param id       - ID of the last formula of the previous window.
+     * @param pageable - window size, its ordering is ignored.
+     * @return formulas in the ID order.
+     */
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    List<Formula> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Page of the prescription history of a patient, with the doctor.
+     * Read from the (patient_id, creation_date, id) index, so only the
+     * rows of the patient are touched.
+     *
+     * @param patientId - patient ID.
+     * @param pageable  - window and ordering.
+     * @return formulas of the patient.
+     */
+    @EntityGraph(attributePaths = {"doctor"})
+    List<Formula> findByPatientId(Long patientId, Pageable pageable);
+
+    /**
+     * Number of formulas of a patient.
+     *
+     * @param patientId - patient ID.
+     * @return number of formulas.
+     */
+    long countByPatientId(Long patientId);
+
+    /**
+     * Work queue: formulas still valid on the date, most urgent first
+     * and, within a priority, oldest first, with their doctor and
+     * patient. Read in order from the (priority, creation_date, id)
+     * index, so the head of the queue costs the same however long it is.
+     *
+     * @param date     - formulas valid until an earlier date are skipped.
+     * @param pageable - window, its ordering is ignored.
+     * @return formulas in the queue order.
+     */
+    @EntityGraph(attributePaths = {"doctor", "patient"})
+    @Query("select f from Formula f where f.validity >= :date"
+            + " order by f.priority, f.creationDate, f.id")
+    List<Formula> findWorkQueue(@Param("date") LocalDate date,
+                                Pageable pageable);
+
+    /**
+     * Number of formulas in the work queue.
+     *
+     * @param date - formulas valid until an earlier date are skipped.
+     * @return number of formulas.
+     */
+    long countByValidityGreaterThanEqual(LocalDate date);
+
+    /**
+     * Number of formulas per doctor.
+     *
+     * @return pairs of doctor ID and count.
+     */
+    @Query("select f.doctor.id, count(f) from Formula f group by f.doctor.id")
+    List<Object[]> countGroupedByDoctor();
+
+    /**
+     * Number of formulas per priority.
+     *
+     * @return pairs of priority and count.
+     */
+    @Query("select f.priority, count(f) from Formula f group by f.priority")
+    List<Object[]> countGroupedByPriority();
+
+    /**
+     * Number of formulas per creation date.
+     *
+     * @return pairs of creation date and count.
+     */
+    @Query("select f.creationDate, count(f) from Formula f"
+            + " group by f.creationDate")
+    List<Object[]> countGroupedByCreationDate();
+
+    /**
+     * Number of formulas per validity date.
+     *
+     * @return pairs of validity date and count.
+     */
+    @Query("select f.validity, count(f) from Formula f group by f.validity")
+    List<Object[]> countGroupedByValidity();
 }
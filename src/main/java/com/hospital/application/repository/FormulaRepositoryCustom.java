@@ -0,0 +1,88 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.BaseFormula;
+import com.hospital.application.entity.Formula;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Queries of the formula repository written by hand.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public interface FormulaRepositoryCustom {
+
+    /**
+     * Stream formulas with their doctor and patient in ID order.
+     * Rows are read from an open cursor and detached as they are
+     * returned, so the memory used does not depend on the number of rows.
+     * Must be called in a transaction and the stream must be closed.
+     *
+     * @param spec - filter condition, may be null.
+     * @return stream of detached formulas.
+     */
+    Stream<Formula> streamAll(@Nullable Specification<Formula> spec);
+
+    /**
+     * Formulas following a known row in the key order, with their
+     * doctor and patient. The query seeks the (date, id) index to the
+     * row instead of skipping an offset, so every window costs the same
+     * however deep it lies.
+     *
+     * @param spec      - filter condition, may be null.
+     * @param keyset    - key ordering.
+     * @param direction - direction of the ordering.
+     * @param after     - last row of the previous window, null for the first.
+     * @param limit     - maximum number of rows.
+     * @return formulas in the key order.
+     */
+    List<Formula> findNext(@Nullable Specification<Formula> spec,
+                           FormulaKeyset keyset,
+                           Sort.Direction direction,
+                           @Nullable BaseFormula after,
+                           int limit);
+
+    /**
+     * Formulas at an offset of the key order, with their doctor and
+     * patient. Only the database reads the skipped rows.
+     *
+     * @param spec      - filter condition, may be null.
+     * @param keyset    - key ordering.
+     * @param direction - direction of the ordering.
+     * @param offset    - number of skipped rows.
+     * @param limit     - maximum number of rows.
+     * @return formulas in the key order.
+     */
+    List<Formula> findAt(@Nullable Specification<Formula> spec,
+                         FormulaKeyset keyset,
+                         Sort.Direction direction,
+                         int offset,
+                         int limit);
+
+    /**
+     * Formulas whose description contains all the words of the text,
+     * best matches first, with their doctor and patient. Words are
+     * compared by their stems, so other forms of a word match too.
+     *
+     * @param text   - searched words.
+     * @param offset - number of skipped matches.
+     * @param limit  - maximum number of matches.
+     * @return matches with the score and the marked description.
+     */
+    List<FormulaSearchHit> search(String text, int offset, int limit);
+
+    /**
+     * Number of formulas found by {@link #search(String, int, int)}.
+     *
+     * @param text - searched words.
+     * @return number of matches.
+     */
+    int countMatches(String text);
+}
@@ -0,0 +1,211 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.BaseFormula;
+import com.hospital.application.entity.Formula;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.NullFragmenter;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.search.engine.ProjectionConstants;
+import org.hibernate.search.exception.EmptyQueryException;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.Search;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Implementation of {@link FormulaRepositoryCustom}.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class FormulaRepositoryCustomImpl implements FormulaRepositoryCustom {
+
+    /**
+     * Indexed field of the full-text search.
+     */
+    private static final String FIELD = "description";
+
+    /**
+     * Shared entity manager of the current transaction.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rows read from the database per round trip.
+     */
+    private final int fetchSize;
+
+    /**
+     * Constructor.
+     *
+     * @param fetchSize - rows read from the database per round trip.
+     */
+    public FormulaRepositoryCustomImpl(
+            @Value("${hospital.export.fetch-size:500}") final int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<Formula> streamAll(
+            @Nullable final Specification<Formula> spec) {
+        return FormulaQueries.stream(entityManager, Formula.class, spec,
+                fetchSize);
+    }
+
+    @Override
+    public List<Formula> findNext(@Nullable final Specification<Formula> spec,
+                                  final FormulaKeyset keyset,
+                                  final Sort.Direction direction,
+                                  @Nullable final BaseFormula after,
+                                  final int limit) {
+        return FormulaQueries.findNext(entityManager, Formula.class,
+                spec, keyset, direction, after, limit);
+    }
+
+    @Override
+    public List<Formula> findAt(@Nullable final Specification<Formula> spec,
+                                final FormulaKeyset keyset,
+                                final Sort.Direction direction,
+                                final int offset,
+                                final int limit) {
+        return FormulaQueries.findAt(entityManager, Formula.class,
+                spec, keyset, direction, offset, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FormulaSearchHit> search(final String text, final int offset,
+                                         final int limit) {
+        FullTextEntityManager search =
+                Search.getFullTextEntityManager(entityManager);
+        Query query = createQuery(search, text);
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = search.createFullTextQuery(query, Formula.class)
+                .setProjection(ProjectionConstants.ID,
+                        ProjectionConstants.SCORE)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = rows.stream()
+                .map(row -> (Long) row[0])
+                .collect(Collectors.toList());
+        Map<Long, Formula> formulas = entityManager.createQuery(
+                "select f from Formula f left join fetch f.doctor"
+                        + " left join fetch f.patient where f.id in :ids",
+                Formula.class)
+                .setParameter("ids", ids)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .collect(Collectors.toMap(Formula::getId,
+                        Function.identity()));
+
+        Highlighter highlighter = new Highlighter(
+                new SimpleHTMLFormatter("<mark>", "</mark>"),
+                new SimpleHTMLEncoder(), new QueryScorer(query, FIELD));
+        highlighter.setTextFragmenter(new NullFragmenter());
+        Analyzer analyzer = search.getSearchFactory()
+                .getAnalyzer(Formula.class);
+        List<FormulaSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            // removed after it was indexed, the index is updated on commit
+            Formula formula = formulas.get((Long) row[0]);
+            if (formula != null) {
+                hits.add(new FormulaSearchHit(formula, (Float) row[1],
+                        highlight(highlighter, analyzer,
+                                formula.getDescription())));
+            }
+        }
+        return hits;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int countMatches(final String text) {
+        FullTextEntityManager search =
+                Search.getFullTextEntityManager(entityManager);
+        Query query = createQuery(search, text);
+        return query == null ? 0
+                : search.createFullTextQuery(query, Formula.class)
+                .getResultSize();
+    }
+
+    /**
+     * Build the query of all the words of the text.
+     *
+     * @param search - full-text entity manager.
+     * @param text   - searched words.
+     * @return query, null if the text has no searchable words.
+     */
+    @Nullable
+    private static Query createQuery(final FullTextEntityManager search,
+                                     final String text) {
+        if (!StringUtils.hasText(text)) {
+            return null;
+        }
+        try {
+            return search.getSearchFactory().buildQueryBuilder()
+                    .forEntity(Formula.class).get()
+                    .simpleQueryString()
+                    .onField(FIELD)
+                    .withAndAsDefaultOperator()
+                    .matching(text.trim())
+                    .createQuery();
+        } catch (EmptyQueryException e) {
+            // only stop words
+            return null;
+        }
+    }
+
+    /**
+     * Escape the description and mark the matched words.
+     *
+     * @param highlighter - highlighter of the query.
+     * @param analyzer    - analyzer of the indexed field.
+     * @param description - formula description.
+     * @return HTML of the description.
+     */
+    private static String highlight(final Highlighter highlighter,
+                                    final Analyzer analyzer,
+                                    final String description) {
+        try {
+            String fragment = highlighter.getBestFragment(analyzer, FIELD,
+                    description);
+            if (fragment != null) {
+                return fragment;
+            }
+        } catch (IOException | InvalidTokenOffsetsException e) {
+            // shown without the marks
+        }
+        return new SimpleHTMLEncoder().encodeText(description);
+    }
+}
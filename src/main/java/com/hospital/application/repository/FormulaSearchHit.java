@@ -0,0 +1,73 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.Formula;
+
+import java.io.Serializable;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Formula found by the full-text search.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class FormulaSearchHit implements Serializable {
+
+    /**
+     * Found formula with its doctor and patient.
+     */
+    private final Formula formula;
+
+    /**
+     * Relevance of the formula, higher is better.
+     */
+    private final float score;
+
+    /**
+     * HTML-escaped description with the matched words in mark tags.
+     */
+    private final String highlight;
+
+    /**
+     * Constructor.
+     *
+     * @param formula   - found formula.
+     * @param score     - relevance of the formula.
+     * @param highlight - description with the matched words marked.
+     */
+    public FormulaSearchHit(final Formula formula,
+                            final float score,
+                            final String highlight) {
+        this.formula = formula;
+        this.score = score;
+        this.highlight = highlight;
+    }
+
+    /**
+     * Function to get value of field {@link FormulaSearchHit#formula}.
+     *
+     * @return returns found formula.
+     */
+    public Formula getFormula() {
+        return formula;
+    }
+
+    /**
+     * Function to get value of field {@link FormulaSearchHit#score}.
+     *
+     * @return returns relevance of the formula.
+     */
+    public float getScore() {
+        return score;
+    }
+
+    /**
+     * Function to get value of field {@link FormulaSearchHit#highlight}.
+     *
+     * @return returns description with the matched words marked.
+     */
+    public String getHighlight() {
+        return highlight;
+    }
+}
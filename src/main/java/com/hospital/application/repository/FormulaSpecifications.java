@@ -0,0 +1,178 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.BaseFormula;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.entity.Patient;
+import com.hospital.application.entity.Priority;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Query conditions for filtering current or archived formulas
+ * in the database.
+ * Every factory returns null for an empty filter value, so the
+ * conditions can be freely combined with {@link Specification#and}.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public final class FormulaSpecifications {
+
+    /**
+     * Escape character for LIKE patterns.
+     */
+    private static final char ESCAPE = '\\';
+
+    /**
+     * Utility class.
+     */
+    private FormulaSpecifications() {
+    }
+
+    /**
+     * Description contains the text, case insensitive.
+     *
+     * @param text - searched text.
+     * @param <T>  - current or archived formula.
+     * @return condition or null.
+     */
+    public static <T extends BaseFormula> Specification<T> descriptionContains(
+            final String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return null;
+        }
+        String pattern = "%"
+                + escape(text.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(
+                cb.lower(root.<String>get("description")), pattern, ESCAPE);
+    }
+
+    /**
+     * Formula is written for the patient.
+     *
+     * @param patient - patient.
+     * @param <T>     - current or archived formula.
+     * @return condition or null.
+     */
+    public static <T extends BaseFormula> Specification<T> hasPatient(
+            final Patient patient) {
+        if (patient == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("patient"), patient);
+    }
+
+    /**
+     * Formula is written for the patient with the ID.
+     *
+     * @param patientId - patient ID.
+     * @param <T>       - current or archived formula.
+     * @return condition or null.
+     */
+    public static <T extends BaseFormula> Specification<T> hasPatientId(
+            final Long patientId) {
+        if (patientId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(
+                root.get("patient").get("id"), patientId);
+    }
+
+    /**
+     * Formula has the priority.
+     *
+     * @param priority - status priority.
+     * @param <T>      - current or archived formula.
+     * @return condition or null.
+     */
+    public static <T extends BaseFormula> Specification<T> hasPriority(
+            final Priority priority) {
+        if (priority == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(
+                root.get("priority"), priority);
+    }
+
+    /**
+     * Formula was created within the range, bounds inclusive.
+     *
+     * @param from - lower bound or null.
+     * @param to   - upper bound or null.
+     * @param <T>  - current or archived formula.
+     * @return condition or null.
+     */
+    public static <T extends BaseFormula> Specification<T> createdBetween(
+            final LocalDate from,
+            final LocalDate to) {
+        return between("creationDate", from, to);
+    }
+
+    /**
+     * Formula validity ends within the range, bounds inclusive.
+     *
+     * @param from - lower bound or null.
+     * @param to   - upper bound or null.
+     * @param <T>  - current or archived formula.
+     * @return condition or null.
+     */
+    public static <T extends BaseFormula> Specification<T> validBetween(
+            final LocalDate from,
+            final LocalDate to) {
+        return between("validity", from, to);
+    }
+
+    /**
+     * Expiry of the formula is not handled yet.
+     *
+     * @return condition.
+     */
+    public static Specification<Formula> expiryPending() {
+        return (root, query, cb) -> cb.isFalse(
+                root.<Boolean>get("expiryHandled"));
+    }
+
+    /**
+     * Date attribute lies within the range.
+     *
+     * @param attribute - date attribute name.
+     * @param from      - lower bound or null.
+     * @param to        - upper bound or null.
+     * @param <T>       - current or archived formula.
+     * @return condition or null.
+     */
+    private static <T extends BaseFormula> Specification<T> between(
+            final String attribute,
+            final LocalDate from,
+            final LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        if (to == null) {
+            return (root, query, cb) -> cb.greaterThanOrEqualTo(
+                    root.<LocalDate>get(attribute), from);
+        }
+        if (from == null) {
+            return (root, query, cb) -> cb.lessThanOrEqualTo(
+                    root.<LocalDate>get(attribute), to);
+        }
+        return (root, query, cb) -> cb.between(
+                root.<LocalDate>get(attribute), from, to);
+    }
+
+    /**
+     * Escape LIKE wildcards in user input.
+     *
+     * @param text - user input.
+     * @return escaped text.
+     */
+    private static String escape(final String text) {
+        return text.replace(String.valueOf(ESCAPE), "" + ESCAPE + ESCAPE)
+                .replace("%", ESCAPE + "%")
+                .replace("_", ESCAPE + "_");
+    }
+}
@@ -0,0 +1,81 @@
+package com.hospital.application.repository;
+
+import org.hsqldb.server.Server;
+import org.hsqldb.server.ServerConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Hospital Application.
+ * <p>
+ * HSQLDB network server sharing the application database with other
+ * JVMs, started when "hospital.hsqldb.server.port" is set.
+ * <p>
+ * The server runs in the application JVM and opens the same database
+ * files as the in-process data source, so both use one database instance
+ * and the application keeps its in-process connections. Other clients
+ * connect to {@code jdbc:hsqldb:hsql://<address>:<port>/hospital}.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty("hospital.hsqldb.server.port")
+public class HsqldbServer {
+
+    /**
+     * Name of the database for the clients.
+     */
+    private static final String ALIAS = "hospital";
+
+    /**
+     * Network server.
+     */
+    private final Server server = new Server();
+
+    /**
+     * Constructor.
+     *
+     * @param port     - listening port.
+     * @param address  - listening address.
+     * @param database - path of the database, as in the data source URL.
+     */
+    public HsqldbServer(
+            @Value("${hospital.hsqldb.server.port}") final int port,
+            @Value("${hospital.hsqldb.server.address:127.0.0.1}")
+            final String address,
+            @Value("${hospital.hsqldb.server.database:file:HospitalDB}")
+            final String database) {
+        server.setPort(port);
+        server.setAddress(address);
+        server.setDatabaseName(0, ALIAS);
+        server.setDatabasePath(0, database);
+        server.setNoSystemExit(true);
+        server.setSilent(true);
+        server.setLogWriter(null);
+    }
+
+    /**
+     * Start listening.
+     */
+    @PostConstruct
+    public void start() {
+        server.start();
+        if (server.getState() != ServerConstants.SERVER_STATE_ONLINE) {
+            throw new IllegalStateException(
+                    "HSQLDB server is not started", server.getServerError());
+        }
+    }
+
+    /**
+     * Stop listening.
+     */
+    @PreDestroy
+    public void stop() {
+        server.stop();
+    }
+}
@@ -0,0 +1,117 @@
+package com.hospital.application.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Page request addressed by an absolute row offset instead of a page number.
+ * The grid asks for arbitrary windows (offset + limit) which do not always
+ * line up with page boundaries.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class OffsetBasedPageRequest implements Pageable, Serializable {
+
+    /**
+     * Index of the first row of the window.
+     */
+    private final long offset;
+
+    /**
+     * Maximum number of rows in the window.
+     */
+    private final int limit;
+
+    /**
+     * Rows ordering.
+     */
+    private final Sort sort;
+
+    /**
+     * Constructor.
+     *
+     * @param offset - index of the first row.
+     * @param limit  - maximum number of rows.
+     * @param sort   - rows ordering.
+     */
+    public OffsetBasedPageRequest(final long offset,
+                                  final int limit,
+                                  final Sort sort) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        this.offset = offset;
+        this.limit = limit;
+        this.sort = sort == null ? Sort.unsorted() : sort;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / limit);
+    }
+
+    @Override
+    public int getPageSize() {
+        return limit;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetBasedPageRequest(offset + limit, limit, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious()
+                ? new OffsetBasedPageRequest(Math.max(0, offset - limit), limit, sort)
+                : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetBasedPageRequest(0, limit, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OffsetBasedPageRequest)) {
+            return false;
+        }
+        OffsetBasedPageRequest that = (OffsetBasedPageRequest) o;
+        return offset == that.offset
+                && limit == that.limit
+                && sort.equals(that.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, limit, sort);
+    }
+}
@@ -1,8 +1,11 @@
 package com.hospital.application.repository;
 
 import com.hospital.application.entity.Patient;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 /**
  * Hospital Application.
  * <p>
@@ -13,4 +16,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
  */
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
+    /**
+     * Window of patients following an ID in the ID order, read
+     * from the primary key index whatever the position of the window.
+     *
+     * @param id       - ID of the last patient of the previous window.
+     * @param pageable - window size, its ordering is ignored.
+     * @return patients in the ID order.
+     */
+    List<Patient> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,125 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.PooledSequenceGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Startup check of the parts of the live schema Hibernate validation
+ * does not cover: the indexes the tables rely on and the step of the ID
+ * sequences, which must match the allocation size or IDs are handed out
+ * twice. Tables and columns are validated by Hibernate
+ * (ddl-auto=validate) and the applied migrations by Flyway.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaCheck {
+
+    /**
+     * Indexes created by the migrations.
+     */
+    private static final List<String> INDEXES = Arrays.asList(
+            "idx_patient_full_name",
+            "idx_doctor_full_name",
+            "idx_formula_priority",
+            "idx_formula_creation_date",
+            "idx_formula_validity",
+            "idx_formula_archive_creation_date",
+            "idx_formula_archive_validity",
+            "idx_formula_patient_history",
+            "idx_formula_archive_patient_history",
+            "idx_formula_work_queue");
+
+    /**
+     * Entity tables with an ID sequence.
+     */
+    private static final List<String> TABLES =
+            Arrays.asList("patient", "doctor", "formula");
+
+    /**
+     * JDBC access.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Number of IDs reserved per sequence call.
+     */
+    private final int allocationSize;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate   - JDBC access.
+     * @param allocationSize - number of IDs reserved per sequence call.
+     */
+    public SchemaCheck(
+            final JdbcTemplate jdbcTemplate,
+            @Value("${spring.jpa.properties."
+                    + PooledSequenceGenerator.ALLOCATION_SIZE + ":"
+                    + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}")
+            final int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * Compare the live schema with the expected one.
+     *
+     * @throws IllegalStateException listing every difference.
+     */
+    @PostConstruct
+    public void check() {
+        List<String> problems = new ArrayList<>();
+
+        Set<String> indexes = new HashSet<>(jdbcTemplate.queryForList(
+                "select index_name from information_schema.system_indexinfo"
+                        + " where table_schem = 'PUBLIC'", String.class));
+        for (String index : INDEXES) {
+            if (!indexes.contains(index.toUpperCase())) {
+                problems.add("missing index " + index);
+            }
+        }
+
+        Map<String, Long> increments = new HashMap<>();
+        jdbcTemplate.query(
+                "select sequence_name, increment"
+                        + " from information_schema.sequences",
+                rs -> {
+                    increments.put(rs.getString(1),
+                            Long.valueOf(rs.getString(2)));
+                });
+        for (String table : TABLES) {
+            String sequence = table + PooledSequenceGenerator.SEQUENCE_SUFFIX;
+            Long increment = increments.get(sequence.toUpperCase());
+            if (increment == null) {
+                problems.add("missing sequence " + sequence);
+            } else if (increment != allocationSize) {
+                problems.add("sequence " + sequence + " increments by "
+                        + increment + ", allocation size is "
+                        + allocationSize);
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException(
+                    "Database schema differs from the migrations: "
+                            + String.join("; ", problems));
+        }
+    }
+}
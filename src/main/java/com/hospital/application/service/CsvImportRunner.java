@@ -0,0 +1,119 @@
+package com.hospital.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Headless CSV import. Started with
+ * {@code --import.patients=<file>} and/or {@code --import.doctors=<file>}
+ * the application imports the files and exits; adding
+ * {@code --spring.main.web-application-type=none} skips the web server.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+public class CsvImportRunner implements ApplicationRunner {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG
+            = LoggerFactory.getLogger(CsvImportRunner.class);
+
+    /**
+     * Option with the patients file.
+     */
+    private static final String PATIENTS = "import.patients";
+
+    /**
+     * Option with the doctors file.
+     */
+    private static final String DOCTORS = "import.doctors";
+
+    /**
+     * CSV importer.
+     */
+    private final PersonCsvImporter importer;
+
+    /**
+     * Application context to close after the import.
+     */
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * Constructor.
+     *
+     * @param importer - CSV importer.
+     * @param context  - application context.
+     */
+    public CsvImportRunner(final PersonCsvImporter importer,
+                           final ConfigurableApplicationContext context) {
+        this.importer = importer;
+        this.context = context;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) throws IOException {
+        if (!args.containsOption(PATIENTS) && !args.containsOption(DOCTORS)) {
+            return;
+        }
+        int rejected = 0;
+        for (String file : values(args, PATIENTS)) {
+            try (Reader reader = Files.newBufferedReader(
+                    Paths.get(file), StandardCharsets.UTF_8)) {
+                rejected += report(file, importer.importPatients(reader));
+            }
+        }
+        for (String file : values(args, DOCTORS)) {
+            try (Reader reader = Files.newBufferedReader(
+                    Paths.get(file), StandardCharsets.UTF_8)) {
+                rejected += report(file, importer.importDoctors(reader));
+            }
+        }
+        int exitCode = rejected == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    /**
+     * Values of an option.
+     *
+     * @param args - application arguments.
+     * @param name - option name.
+     * @return option values, empty if absent.
+     */
+    private static List<String> values(final ApplicationArguments args,
+                                       final String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null ? Collections.emptyList() : values;
+    }
+
+    /**
+     * Log the result of one file.
+     *
+     * @param file   - file name.
+     * @param result - import statistics.
+     * @return number of rejected rows.
+     */
+    private static int report(final String file,
+                              final PersonCsvImporter.Result result) {
+        LOG.info("{}: {}", file, result);
+        result.getErrors().forEach(error -> LOG.warn("{}: {}", file, error));
+        return result.getRejected();
+    }
+}
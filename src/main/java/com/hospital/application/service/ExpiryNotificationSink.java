@@ -0,0 +1,27 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Formula;
+
+import java.util.List;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Receiver of expired formulas found by {@link FormulaExpiryJob}.
+ * Declare a {@code @Primary} bean of this type to replace the default
+ * logging one.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ExpiryNotificationSink {
+
+    /**
+     * Handle one batch of expired formulas. Called from the job's
+     * worker threads, several batches may be handled at once.
+     *
+     * @param formulas - expired formulas with their doctor and patient.
+     */
+    void expired(List<Formula> formulas);
+}
@@ -0,0 +1,160 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Formula;
+import com.hospital.application.event.EntityChangeBroadcaster;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.Search;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Moves old formulas to the archive table.
+ * <p>
+ * A formula is old when both its creation date and its validity lie
+ * more than the configured number of days in the past. Old formulas are
+ * copied to "formula_archive" and deleted from "formula" in batches,
+ * each batch in its own short transaction, so the current table keeps
+ * a fixed size and is never locked for long. Moved formulas are removed
+ * from the full-text index when their batch commits, and the open
+ * formula tables are refreshed after every batch.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Service
+public class FormulaArchiver {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(FormulaArchiver.class);
+
+    /**
+     * Columns of both formula tables.
+     */
+    private static final String COLUMNS = "id, description, doctor_id,"
+            + " patient_id, priority, creation_date, validity";
+
+    /**
+     * Shared entity manager of the current transaction.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * JDBC access.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Bus of committed changes, the batches bypass the entity manager.
+     */
+    private final EntityChangeBroadcaster broadcaster;
+
+    /**
+     * Runs every batch in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Formulas moved per transaction.
+     */
+    private final int batchSize;
+
+    /**
+     * Age in days after which a formula is archived.
+     */
+    private final int ageDays;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate       - JDBC access.
+     * @param broadcaster        - bus of committed changes.
+     * @param transactionManager - transaction manager.
+     * @param batchSize          - formulas moved per transaction.
+     * @param ageDays            - age in days after which a formula
+     *                           is archived.
+     */
+    public FormulaArchiver(
+            final NamedParameterJdbcTemplate jdbcTemplate,
+            final EntityChangeBroadcaster broadcaster,
+            final PlatformTransactionManager transactionManager,
+            @Value("${hospital.archive.batch-size:1000}") final int batchSize,
+            @Value("${hospital.archive.age-days:365}") final int ageDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.broadcaster = broadcaster;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.ageDays = ageDays;
+    }
+
+    /**
+     * Archive all old formulas.
+     *
+     * @return number of archived formulas.
+     */
+    @Scheduled(cron = "${hospital.archive.cron:0 30 2 * * *}")
+    public int archive() {
+        LocalDate cutoff = LocalDate.now().minusDays(ageDays);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(cutoff));
+            if (moved > 0) {
+                broadcaster.reload(Formula.class);
+            }
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            LOG.info("Archived {} formulas older than {}", total, cutoff);
+        }
+        return total;
+    }
+
+    /**
+     * Move one batch of old formulas.
+     *
+     * @param cutoff - formulas before this date are old.
+     * @return number of moved formulas.
+     */
+    private int moveBatch(final LocalDate cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select id from formula where validity < :cutoff"
+                        + " and creation_date < :cutoff"
+                        + " order by validity, id limit :limit",
+                new MapSqlParameterSource()
+                        .addValue("cutoff", Date.valueOf(cutoff))
+                        .addValue("limit", batchSize),
+                Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params =
+                new MapSqlParameterSource("ids", ids);
+        jdbcTemplate.update("insert into formula_archive (" + COLUMNS + ")"
+                + " select " + COLUMNS + " from formula where id in (:ids)",
+                params);
+        jdbcTemplate.update("delete from formula where id in (:ids)", params);
+        FullTextEntityManager search =
+                Search.getFullTextEntityManager(entityManager);
+        ids.forEach(id -> search.purge(Formula.class, id));
+        return ids.size();
+    }
+}
@@ -0,0 +1,190 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.ArchivedFormula;
+import com.hospital.application.entity.BaseFormula;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.repository.ArchivedFormulaRepository;
+import com.hospital.application.repository.FormulaRepository;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Streaming CSV export of the formulas journal.
+ * <p>
+ * Rows are written while they are read from the database cursor,
+ * so the download starts at once and the heap used does not depend on
+ * the number of exported formulas. The archived formulas, when included,
+ * follow the current ones. The file is UTF-8 with a byte order
+ * mark and ";" separators, the way spreadsheet editors open it. A text
+ * that a spreadsheet would evaluate as a formula is written with a
+ * leading apostrophe.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Service
+public class FormulaCsvExporter {
+
+    /**
+     * Field separator.
+     */
+    private static final char SEPARATOR = ';';
+
+    /**
+     * Byte order mark, lets spreadsheet editors detect UTF-8.
+     */
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * First characters starting a formula in spreadsheet editors.
+     */
+    private static final String FORMULA_START = "=+-@\t\r";
+
+    /**
+     * Header line.
+     */
+    private static final String[] HEADER = {
+            "ID", "Описание", "Доктор", "Пациент",
+            "Приоритет", "Создание", "Срок годности"
+    };
+
+    /**
+     * Formula records repository.
+     */
+    private final FormulaRepository formulaRepository;
+
+    /**
+     * Archived formula records repository.
+     */
+    private final ArchivedFormulaRepository archiveRepository;
+
+    /**
+     * Constructor.
+     *
+     * @param formulaRepository - formula records repository.
+     * @param archiveRepository - archived formula records repository.
+     */
+    public FormulaCsvExporter(
+            final FormulaRepository formulaRepository,
+            final ArchivedFormulaRepository archiveRepository) {
+        this.formulaRepository = formulaRepository;
+        this.archiveRepository = archiveRepository;
+    }
+
+    /**
+     * Write formulas matching the filter as CSV.
+     *
+     * @param spec           - filter condition, may be null.
+     * @param archiveSpec    - filter condition of the archive, may be null.
+     * @param includeArchive - archived formulas are written too.
+     * @param out            - target stream, left open.
+     * @throws IOException if the stream can not be written.
+     */
+    @Transactional(readOnly = true)
+    public void export(
+            @Nullable final Specification<Formula> spec,
+            @Nullable final Specification<ArchivedFormula> archiveSpec,
+            final boolean includeArchive,
+            final OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(BOM);
+        writeLine(writer, HEADER);
+        try (Stream<Formula> formulas = formulaRepository.streamAll(spec)) {
+            writeFormulas(writer, formulas);
+        }
+        if (includeArchive) {
+            try (Stream<ArchivedFormula> formulas =
+                         archiveRepository.streamAll(archiveSpec)) {
+                writeFormulas(writer, formulas);
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Write one CSV line per formula.
+     *
+     * @param writer   - target.
+     * @param formulas - current or archived formulas.
+     * @throws IOException if the target can not be written.
+     */
+    private static void writeFormulas(
+            final Writer writer,
+            final Stream<? extends BaseFormula> formulas) throws IOException {
+        Iterator<? extends BaseFormula> iterator = formulas.iterator();
+        while (iterator.hasNext()) {
+            BaseFormula formula = iterator.next();
+            writeLine(writer, new String[]{
+                    String.valueOf(formula.getId()),
+                    formula.getDescription(),
+                    formula.getDoctorName(),
+                    formula.getPatient() == null
+                            ? null
+                            : formula.getPatientName(),
+                    formula.getPriority().getLabel(),
+                    String.valueOf(formula.getCreationDate()),
+                    String.valueOf(formula.getValidity())
+            });
+        }
+    }
+
+    /**
+     * Write one CSV line.
+     *
+     * @param writer - target.
+     * @param fields - line fields, null is written as an empty field.
+     * @throws IOException if the target can not be written.
+     */
+    private static void writeLine(final Writer writer,
+                                  final String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(SEPARATOR);
+            }
+            writeField(writer, fields[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Write one field, quoted when it holds a separator, quote or line break.
+     * A field starting like a formula is prefixed with an apostrophe, so
+     * it is shown as text and never evaluated.
+     *
+     * @param writer - target.
+     * @param value  - field value or null.
+     * @throws IOException if the target can not be written.
+     */
+    private static void writeField(final Writer writer,
+                                   final String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String field = !value.isEmpty()
+                && FORMULA_START.indexOf(value.charAt(0)) >= 0
+                ? "'" + value
+                : value;
+        if (field.indexOf(SEPARATOR) < 0 && field.indexOf('"') < 0
+                && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
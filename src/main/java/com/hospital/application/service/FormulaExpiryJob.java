@@ -0,0 +1,265 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Formula;
+import com.hospital.application.repository.FormulaKeyset;
+import com.hospital.application.repository.FormulaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
+
+import static com.hospital.application.repository.FormulaSpecifications.expiryPending;
+import static com.hospital.application.repository.FormulaSpecifications.validBetween;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Scheduled search for expired formulas.
+ * <p>
+ * Every run reads the formulas whose validity ended before today and
+ * whose expiry is not handled yet, whenever they were written. They are
+ * read in fixed-size windows by seeking the (expiry_handled, validity, id)
+ * index, without locks or a long transaction, and every window is handed
+ * to the {@link ExpiryNotificationSink} on a bounded pool of workers. When
+ * the queue of the pool is full the reading thread handles the window
+ * itself, which slows reading down to the pace of the sink. The formulas
+ * of a window are marked handled as soon as the sink accepted it, unless
+ * their validity was changed meanwhile; a change of the validity makes
+ * a formula pending again. After a failure only the windows not handled
+ * yet are repeated.
+ * <p>
+ * Metrics: "hospital.expiry.formulas" counts handled formulas,
+ * "hospital.expiry.run" times the runs and "hospital.expiry.lag" is the
+ * number of days since the oldest pending expiry, as of the last run.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+public class FormulaExpiryJob {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(FormulaExpiryJob.class);
+
+    /**
+     * Formula records repository.
+     */
+    private final FormulaRepository formulaRepository;
+
+    /**
+     * Receiver of expired formulas.
+     */
+    private final ExpiryNotificationSink sink;
+
+    /**
+     * JDBC access to the progress of the formulas.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Workers handing windows to the sink.
+     */
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Formulas per window.
+     */
+    private final int batchSize;
+
+    /**
+     * Handled formulas.
+     */
+    private final Counter handled;
+
+    /**
+     * Duration of runs.
+     */
+    private final Timer runs;
+
+    /**
+     * Days since the oldest pending expiry, as of the last run.
+     */
+    private volatile long lagDays;
+
+    /**
+     * Constructor.
+     *
+     * @param formulaRepository - formula records repository.
+     * @param sink              - receiver of expired formulas.
+     * @param jdbcTemplate      - JDBC access to the progress of the
+     *                          formulas.
+     * @param registry          - metrics registry.
+     * @param batchSize         - formulas per window.
+     * @param threads           - number of workers.
+     */
+    public FormulaExpiryJob(
+            final FormulaRepository formulaRepository,
+            final ExpiryNotificationSink sink,
+            final JdbcTemplate jdbcTemplate,
+            final MeterRegistry registry,
+            @Value("${hospital.expiry.batch-size:500}") final int batchSize,
+            @Value("${hospital.expiry.threads:2}") final int threads) {
+        this.formulaRepository = formulaRepository;
+        this.sink = sink;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 2);
+        executor.setRejectedExecutionHandler(
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("formula-expiry-");
+        executor.initialize();
+
+        handled = Counter.builder("hospital.expiry.formulas")
+                .description("Expired formulas handed to the sink")
+                .register(registry);
+        runs = Timer.builder("hospital.expiry.run")
+                .description("Duration of expiry runs")
+                .register(registry);
+        Gauge.builder("hospital.expiry.lag", this, job -> job.lagDays)
+                .description("Days since the oldest pending expiry")
+                .baseUnit("days")
+                .register(registry);
+    }
+
+    /**
+     * Process the expired formulas not handled yet.
+     */
+    @Scheduled(fixedDelayString = "${hospital.expiry.delay:300000}",
+            initialDelayString = "${hospital.expiry.initial-delay:60000}")
+    public void run() {
+        LocalDate today = LocalDate.now();
+        Timer.Sample sample = Timer.start();
+        try {
+            process(Specification.where(expiryPending())
+                    .and(validBetween(null, today.minusDays(1))));
+        } catch (ExecutionException exception) {
+            LOG.error("Expiry run failed, the pending formulas are repeated"
+                    + " on the next run", exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sample.stop(runs);
+            lagDays = lagDays(today);
+        }
+    }
+
+    /**
+     * Stop the workers.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Read all windows of the pending formulas and wait until they are
+     * handled.
+     *
+     * @param spec - pending formulas.
+     * @throws ExecutionException   if the sink failed.
+     * @throws InterruptedException if the wait was interrupted.
+     */
+    private void process(final Specification<Formula> spec)
+            throws ExecutionException, InterruptedException {
+        List<Future<?>> pending = new ArrayList<>();
+        Formula after = null;
+        List<Formula> window;
+        do {
+            window = formulaRepository.findNext(spec, FormulaKeyset.VALIDITY,
+                    Sort.Direction.ASC, after, batchSize);
+            if (!window.isEmpty()) {
+                after = window.get(window.size() - 1);
+                List<Formula> formulas = window;
+                pending.add(executor.submit(() -> {
+                    sink.expired(formulas);
+                    markHandled(formulas);
+                    handled.increment(formulas.size());
+                }));
+            }
+            removeDone(pending);
+        } while (window.size() == batchSize);
+        for (Future<?> future : pending) {
+            future.get();
+        }
+    }
+
+    /**
+     * Drop the handled windows, failing on the first window the sink
+     * failed on. Windows handled by the reading thread when the queue was
+     * full are checked the same way.
+     *
+     * @param pending - windows not checked yet.
+     * @throws ExecutionException   if the sink failed.
+     * @throws InterruptedException if the wait was interrupted.
+     */
+    private static void removeDone(final List<Future<?>> pending)
+            throws ExecutionException, InterruptedException {
+        Iterator<Future<?>> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Future<?> future = iterator.next();
+            if (future.isDone()) {
+                future.get();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Mark formulas handled. A formula whose validity was changed since it
+     * was read stays pending.
+     *
+     * @param formulas - formulas accepted by the sink.
+     */
+    private void markHandled(final List<Formula> formulas) {
+        jdbcTemplate.batchUpdate("update formula set expiry_handled = true"
+                        + " where id = ? and validity = ?",
+                formulas.stream()
+                        .map(formula -> new Object[]{formula.getId(),
+                                Date.valueOf(formula.getValidity())})
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Days since the oldest pending expiry.
+     *
+     * @param today - date of the run.
+     * @return lag in days, 0 when nothing is pending.
+     */
+    private long lagDays(final LocalDate today) {
+        Date oldest = jdbcTemplate.queryForObject(
+                "select min(validity) from formula"
+                        + " where expiry_handled = false and validity < ?",
+                Date.class, Date.valueOf(today));
+        return oldest == null
+                ? 0
+                : ChronoUnit.DAYS.between(oldest.toLocalDate(), today);
+    }
+}
@@ -0,0 +1,102 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Formula;
+import com.hospital.application.repository.FormulaRepository;
+import org.apache.lucene.index.IndexReader;
+import org.hibernate.search.SearchFactory;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.Search;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Keeps the full-text index of the formulas in line with the table.
+ * <p>
+ * Saves through Hibernate update the index on commit. Rows written
+ * past Hibernate, by the migrations or while the index directory was
+ * missing, are caught at startup: when the index and the table hold a
+ * different number of formulas the index is rebuilt in the background,
+ * the search returns partial results until it is done.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Service
+public class FormulaSearchIndexer {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(FormulaSearchIndexer.class);
+
+    /**
+     * Entity manager factory.
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Formula records repository.
+     */
+    private final FormulaRepository formulaRepository;
+
+    /**
+     * Constructor.
+     *
+     * @param entityManagerFactory - entity manager factory.
+     * @param formulaRepository    - formula records repository.
+     */
+    public FormulaSearchIndexer(
+            final EntityManagerFactory entityManagerFactory,
+            final FormulaRepository formulaRepository) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.formulaRepository = formulaRepository;
+    }
+
+    /**
+     * Rebuild the index when the application has started, if it is
+     * out of date.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        EntityManager entityManager =
+                entityManagerFactory.createEntityManager();
+        try {
+            FullTextEntityManager search =
+                    Search.getFullTextEntityManager(entityManager);
+            long indexed = indexed(search.getSearchFactory());
+            long stored = formulaRepository.count();
+            if (indexed != stored) {
+                LOG.info("Formula index holds {} of {} formulas,"
+                        + " rebuilding", indexed, stored);
+                search.createIndexer(Formula.class).start();
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Number of formulas in the index.
+     *
+     * @param searchFactory - search factory.
+     * @return number of indexed formulas.
+     */
+    private static long indexed(final SearchFactory searchFactory) {
+        IndexReader reader = searchFactory.getIndexReaderAccessor()
+                .open(Formula.class);
+        try {
+            return reader.numDocs();
+        } finally {
+            searchFactory.getIndexReaderAccessor().close(reader);
+        }
+    }
+}
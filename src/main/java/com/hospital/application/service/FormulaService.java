@@ -0,0 +1,56 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Formula;
+import com.hospital.application.repository.DoctorRepository;
+import com.hospital.application.repository.FormulaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Service for writing prescriptions.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Service
+public class FormulaService {
+
+    /**
+     * Formula records repository.
+     */
+    private final FormulaRepository formulaRepository;
+
+    /**
+     * Doctor records repository.
+     */
+    private final DoctorRepository doctorRepository;
+
+    /**
+     * Constructor.
+     *
+     * @param formulaRepository - formula records repository.
+     * @param doctorRepository  - doctor records repository.
+     */
+    public FormulaService(final FormulaRepository formulaRepository,
+                          final DoctorRepository doctorRepository) {
+        this.formulaRepository = formulaRepository;
+        this.doctorRepository = doctorRepository;
+    }
+
+    /**
+     * Save a new formula and count it for the doctor in one transaction.
+     * The counter is incremented in the database, so concurrent
+     * prescriptions of the same doctor are never lost.
+     *
+     * @param formula - new formula.
+     * @return saved formula.
+     */
+    @Transactional
+    public Formula prescribe(final Formula formula) {
+        Formula saved = formulaRepository.save(formula);
+        doctorRepository.incrementCountFormulas(formula.getDoctor().getId());
+        return saved;
+    }
+}
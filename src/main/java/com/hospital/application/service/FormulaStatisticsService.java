@@ -0,0 +1,337 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Doctor;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.entity.Priority;
+import com.hospital.application.event.EntityChangedEvent;
+import com.hospital.application.repository.ArchivedFormulaRepository;
+import com.hospital.application.repository.FormulaRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Prescription statistics, shared by all sessions.
+ * <p>
+ * Formulas are counted per doctor, per priority, per creation date and
+ * per validity date, archived formulas included, so moving formulas to
+ * the archive does not change them. The counts are read from the database
+ * once with a GROUP BY per dimension and afterwards adjusted by the
+ * persistence event of every committed insert, update and delete, so
+ * showing them never scans the formula tables.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Service
+public class FormulaStatisticsService {
+
+    /**
+     * Formula records repository.
+     */
+    private final FormulaRepository formulaRepository;
+
+    /**
+     * Archived formula records repository.
+     */
+    private final ArchivedFormulaRepository archivedFormulaRepository;
+
+    /**
+     * Number of formulas by doctor ID.
+     */
+    private final Map<Long, Long> byDoctor = new HashMap<>();
+
+    /**
+     * Number of formulas by priority.
+     */
+    private final Map<Priority, Long> byPriority =
+            new EnumMap<>(Priority.class);
+
+    /**
+     * Number of formulas by creation date.
+     */
+    private final NavigableMap<LocalDate, Long> byCreationDate =
+            new TreeMap<>();
+
+    /**
+     * Number of formulas by validity date.
+     */
+    private final NavigableMap<LocalDate, Long> byValidity =
+            new TreeMap<>();
+
+    /**
+     * Guards the maps above.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor.
+     *
+     * @param formulaRepository         - formula records repository.
+     * @param archivedFormulaRepository - archived formula records repository.
+     */
+    public FormulaStatisticsService(
+            final FormulaRepository formulaRepository,
+            final ArchivedFormulaRepository archivedFormulaRepository) {
+        this.formulaRepository = formulaRepository;
+        this.archivedFormulaRepository = archivedFormulaRepository;
+    }
+
+    /**
+     * Read the counts when the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            byDoctor.clear();
+            byPriority.clear();
+            byCreationDate.clear();
+            byValidity.clear();
+            fill(byDoctor, formulaRepository.countGroupedByDoctor());
+            fill(byPriority, formulaRepository.countGroupedByPriority());
+            fill(byCreationDate,
+                    formulaRepository.countGroupedByCreationDate());
+            fill(byValidity, formulaRepository.countGroupedByValidity());
+            fill(byDoctor, archivedFormulaRepository.countGroupedByDoctor());
+            fill(byPriority,
+                    archivedFormulaRepository.countGroupedByPriority());
+            fill(byCreationDate,
+                    archivedFormulaRepository.countGroupedByCreationDate());
+            fill(byValidity,
+                    archivedFormulaRepository.countGroupedByValidity());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adjust the counts after every committed formula change.
+     *
+     * @param event - persistence event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(final EntityChangedEvent event) {
+        if (!(event.getEntity() instanceof Formula)) {
+            return;
+        }
+        Formula formula = (Formula) event.getEntity();
+        switch (event.getChangeType()) {
+            case CREATED:
+                add(Facts.of(formula), 1);
+                break;
+            case DELETED:
+                add(Facts.of(formula), -1);
+                break;
+            default:
+                Map<String, Object> previous = event.getPreviousState();
+                if (previous == null) {
+                    load();
+                } else {
+                    lock.writeLock().lock();
+                    try {
+                        add(Facts.of(previous), -1);
+                        add(Facts.of(formula), 1);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+        }
+    }
+
+    /**
+     * Number of formulas by doctor ID.
+     *
+     * @return copy of the counts.
+     */
+    public Map<Long, Long> countByDoctor() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(byDoctor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of formulas with the priority.
+     *
+     * @param priority - status priority.
+     * @return number of formulas.
+     */
+    public long countByPriority(final Priority priority) {
+        lock.readLock().lock();
+        try {
+            return byPriority.getOrDefault(priority, 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of formulas per creation date within the range.
+     *
+     * @param from - first date.
+     * @param to   - last date.
+     * @return copy of the counts, dates without formulas are missing.
+     */
+    public NavigableMap<LocalDate, Long> countByCreationDate(
+            final LocalDate from,
+            final LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return new TreeMap<>(byCreationDate.subMap(from, true, to, true));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of formulas whose validity ends within the range.
+     *
+     * @param from - first date.
+     * @param to   - last date.
+     * @return number of formulas.
+     */
+    public long countExpiring(final LocalDate from, final LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return byValidity.subMap(from, true, to, true).values().stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or subtract one formula.
+     *
+     * @param facts - counted values of the formula.
+     * @param delta - 1 or -1.
+     */
+    private void add(final Facts facts, final long delta) {
+        lock.writeLock().lock();
+        try {
+            merge(byDoctor, facts.doctorId, delta);
+            merge(byPriority, facts.priority, delta);
+            merge(byCreationDate, facts.creationDate, delta);
+            merge(byValidity, facts.validity, delta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Change one count, counts dropping to zero are removed.
+     *
+     * @param counts - counts.
+     * @param key    - counted value, ignored when null.
+     * @param delta  - change.
+     * @param <K>    - counted value type.
+     */
+    private static <K> void merge(final Map<K, Long> counts,
+                                  final K key,
+                                  final long delta) {
+        if (key != null) {
+            counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    /**
+     * Fill counts from GROUP BY rows.
+     *
+     * @param counts - counts.
+     * @param rows   - pairs of value and count, added to the counts.
+     * @param <K>    - counted value type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> void fill(final Map<K, Long> counts,
+                                 final List<Object[]> rows) {
+        for (Object[] row : rows) {
+            counts.merge((K) row[0], ((Number) row[1]).longValue(),
+                    Long::sum);
+        }
+    }
+
+    /**
+     * Counted values of one formula.
+     */
+    private static final class Facts {
+
+        /**
+         * Doctor ID.
+         */
+        private final Long doctorId;
+
+        /**
+         * Status priority.
+         */
+        private final Priority priority;
+
+        /**
+         * Creation date.
+         */
+        private final LocalDate creationDate;
+
+        /**
+         * Validity date.
+         */
+        private final LocalDate validity;
+
+        /**
+         * Constructor.
+         *
+         * @param doctor       - doctor or null.
+         * @param priority     - status priority.
+         * @param creationDate - creation date.
+         * @param validity     - validity date.
+         */
+        private Facts(final Doctor doctor,
+                      final Priority priority,
+                      final LocalDate creationDate,
+                      final LocalDate validity) {
+            this.doctorId = doctor == null ? null : doctor.getId();
+            this.priority = priority;
+            this.creationDate = creationDate;
+            this.validity = validity;
+        }
+
+        /**
+         * Counted values of a formula.
+         *
+         * @param formula - formula.
+         * @return counted values.
+         */
+        private static Facts of(final Formula formula) {
+            return new Facts(formula.getDoctor(), formula.getPriority(),
+                    formula.getCreationDate(), formula.getValidity());
+        }
+
+        /**
+         * Counted values of a formula before an update.
+         *
+         * @param state - property values by name.
+         * @return counted values.
+         */
+        private static Facts of(final Map<String, Object> state) {
+            return new Facts((Doctor) state.get("doctor"),
+                    (Priority) state.get("priority"),
+                    (LocalDate) state.get("creationDate"),
+                    (LocalDate) state.get("validity"));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Formula;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Default receiver of expired formulas, writes them to the log.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Component
+public class LoggingExpiryNotificationSink implements ExpiryNotificationSink {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG =
+            LoggerFactory.getLogger(LoggingExpiryNotificationSink.class);
+
+    @Override
+    public void expired(final List<Formula> formulas) {
+        for (Formula formula : formulas) {
+            LOG.info("Formula {} of patient {} expired on {}",
+                    formula.getId(),
+                    formula.getPatient() == null
+                            ? "-"
+                            : formula.getPatientName(),
+                    formula.getValidity());
+        }
+    }
+}
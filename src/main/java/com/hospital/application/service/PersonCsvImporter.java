@@ -0,0 +1,366 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Doctor;
+import com.hospital.application.entity.Patient;
+import com.hospital.application.entity.Person;
+import com.vaadin.flow.data.binder.ValidationResult;
+import com.vaadin.flow.data.binder.Validator;
+import com.vaadin.flow.data.binder.ValueContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+import static com.hospital.application.validation.PersonValidators.length;
+import static com.hospital.application.validation.PersonValidators.phoneNumber;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Streaming CSV import of patients and doctors.
+ * <p>
+ * Every line holds last name, name, patronymic and the phone number
+ * (patients) or the specialization (doctors), separated by ";" or ",".
+ * An optional header line is skipped. Rows are checked with the same
+ * rules as the tables, valid rows are inserted in chunks, each chunk in
+ * its own transaction, flushed in JDBC batches and cleared afterwards,
+ * so memory use does not depend on the file size.
+ * <p>
+ * Imports started from the UI are run by {@link #submit(Callable)} on a
+ * single background worker, one after another, so a large file never
+ * holds a request thread or the session lock.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Service
+public class PersonCsvImporter {
+
+    /**
+     * Maximum number of error messages kept in a result.
+     */
+    private static final int MAX_ERRORS = 20;
+
+    /**
+     * Field separators.
+     */
+    private static final String SEPARATOR = "[;,]";
+
+    /**
+     * Byte order mark some editors put at the start of the file.
+     */
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * Imports waiting for the worker.
+     */
+    private static final int MAX_QUEUED = 4;
+
+    /**
+     * Shared entity manager of the current transaction.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Runs every chunk in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Rows flushed together, matches hibernate.jdbc.batch_size.
+     */
+    private final int batchSize;
+
+    /**
+     * Rows committed together.
+     */
+    private final int chunkSize;
+
+    /**
+     * Worker running the imports started from the UI.
+     */
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionManager - transaction manager.
+     * @param batchSize          - rows flushed together.
+     * @param chunkSize          - rows committed together.
+     */
+    public PersonCsvImporter(
+            final PlatformTransactionManager transactionManager,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+            final int batchSize,
+            @Value("${hospital.import.chunk-size:5000}") final int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(MAX_QUEUED);
+        executor.setThreadNamePrefix("csv-import-");
+        executor.initialize();
+    }
+
+    /**
+     * Run an import in the background.
+     *
+     * @param task - import of one file.
+     * @return result of the import.
+     * @throws TaskRejectedException if too many imports are waiting.
+     */
+    public ListenableFuture<Result> submit(final Callable<Result> task) {
+        return executor.submitListenable(task);
+    }
+
+    /**
+     * Stop the worker.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Import patients.
+     *
+     * @param reader - CSV text.
+     * @return import statistics.
+     * @throws IOException if the text can not be read.
+     */
+    public Result importPatients(final Reader reader) throws IOException {
+        List<Validator<String>> rules = new ArrayList<>();
+        rules.add(length("Фамилия не корректна"));
+        rules.add(length("Имя не корректно"));
+        rules.add(length("Отчество не корректно"));
+        rules.add(phoneNumber("Невалидный номер"));
+        return importRows(reader, rules, fields -> {
+            Patient patient = new Patient();
+            fill(patient, fields);
+            patient.setNumber(fields[3]);
+            return patient;
+        });
+    }
+
+    /**
+     * Import doctors.
+     *
+     * @param reader - CSV text.
+     * @return import statistics.
+     * @throws IOException if the text can not be read.
+     */
+    public Result importDoctors(final Reader reader) throws IOException {
+        List<Validator<String>> rules = new ArrayList<>();
+        rules.add(length("Фамилия не корректна"));
+        rules.add(length("Имя не корректно"));
+        rules.add(length("Отчество не корректно"));
+        rules.add(length("Специализация не корректна"));
+        return importRows(reader, rules, fields -> {
+            Doctor doctor = new Doctor();
+            fill(doctor, fields);
+            doctor.setSpecialization(fields[3]);
+            return doctor;
+        });
+    }
+
+    /**
+     * Read, validate and insert rows.
+     *
+     * @param reader - CSV text.
+     * @param rules  - one rule per column.
+     * @param mapper - creates a person from valid fields.
+     * @return import statistics.
+     * @throws IOException if the text can not be read.
+     */
+    private Result importRows(final Reader reader,
+                              final List<Validator<String>> rules,
+                              final Function<String[], Person> mapper)
+            throws IOException {
+        Result result = new Result();
+        List<Person> chunk = new ArrayList<>(chunkSize);
+        BufferedReader lines = reader instanceof BufferedReader
+                ? (BufferedReader) reader
+                : new BufferedReader(reader);
+        ValueContext context = new ValueContext();
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            if (number == 1 && !line.isEmpty() && line.charAt(0) == BOM) {
+                line = line.substring(1);
+            }
+            if (line.trim().isEmpty() || (number == 1 && isHeader(line))) {
+                continue;
+            }
+            String[] fields = line.split(SEPARATOR, -1);
+            String error = validate(fields, rules, context);
+            if (error != null) {
+                result.reject(number, error);
+                continue;
+            }
+            chunk.add(mapper.apply(fields));
+            if (chunk.size() >= chunkSize) {
+                persist(chunk);
+                result.imported += chunk.size();
+                chunk.clear();
+            }
+        }
+        persist(chunk);
+        result.imported += chunk.size();
+        return result;
+    }
+
+    /**
+     * Check a row against the column rules.
+     *
+     * @param fields  - row fields.
+     * @param rules   - one rule per column.
+     * @param context - validation context.
+     * @return first error message or null.
+     */
+    private static String validate(final String[] fields,
+                                   final List<Validator<String>> rules,
+                                   final ValueContext context) {
+        if (fields.length != rules.size()) {
+            return "Ожидается полей: " + rules.size();
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+            ValidationResult validation = rules.get(i).apply(fields[i], context);
+            if (validation.isError()) {
+                return validation.getErrorMessage();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Insert a chunk of persons in one transaction.
+     *
+     * @param chunk - persons.
+     */
+    private void persist(final List<Person> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.execute(status -> {
+            for (int i = 0; i < chunk.size(); i++) {
+                entityManager.persist(chunk.get(i));
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Set the full name of a person.
+     *
+     * @param person - person.
+     * @param fields - row fields.
+     */
+    private static void fill(final Person person, final String[] fields) {
+        person.setLastName(fields[0]);
+        person.setName(fields[1]);
+        person.setPatronymic(fields[2]);
+    }
+
+    /**
+     * Check whether the first line is a header.
+     *
+     * @param line - first line.
+     * @return true for a header.
+     */
+    private static boolean isHeader(final String line) {
+        String first = line.split(SEPARATOR, -1)[0].trim();
+        return first.equalsIgnoreCase("lastName")
+                || first.equalsIgnoreCase("Фамилия");
+    }
+
+    /**
+     * Statistics of one import.
+     */
+    public static final class Result {
+
+        /**
+         * Number of inserted rows.
+         */
+        private int imported;
+
+        /**
+         * Number of rejected rows.
+         */
+        private int rejected;
+
+        /**
+         * First error messages.
+         */
+        private final List<String> errors = new ArrayList<>();
+
+        /**
+         * Record a rejected row.
+         *
+         * @param line    - line number.
+         * @param message - error message.
+         */
+        private void reject(final int line, final String message) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("Строка " + line + ": " + message);
+            }
+        }
+
+        /**
+         * Function to get value of field {@link Result#imported}.
+         *
+         * @return returns number of inserted rows.
+         */
+        public int getImported() {
+            return imported;
+        }
+
+        /**
+         * Function to get value of field {@link Result#rejected}.
+         *
+         * @return returns number of rejected rows.
+         */
+        public int getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Function to get value of field {@link Result#errors}.
+         *
+         * @return returns first error messages.
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return "Добавлено: " + imported + ", отклонено: " + rejected;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Person;
+
+/**
+ * Hospital Application.
+ * <p>
+ * ID and display name of a person, all the name index keeps of it.
+ * Immutable, so it is shared by all sessions.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public final class PersonName {
+
+    /**
+     * Person ID.
+     */
+    private final Long id;
+
+    /**
+     * Name shown to the users.
+     */
+    private final String name;
+
+    /**
+     * Constructor.
+     *
+     * @param person - person.
+     */
+    PersonName(final Person person) {
+        this.id = person.getId();
+        this.name = person.toString();
+    }
+
+    /**
+     * Function to get value of field {@link PersonName#id}.
+     *
+     * @return returns person ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Function to get value of field {@link PersonName#name}.
+     *
+     * @return returns name shown to the users.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,450 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Person;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hospital Application.
+ * <p>
+ * In-memory prefix index over the last name, name and patronymic of persons.
+ * Every part of the full name is case folded (Cyrillic "ё" is folded to "е")
+ * and stored in a sorted map, so a typed prefix is resolved by a range scan
+ * that stops as soon as enough matches are collected. Only the ID and the
+ * display name of a person are kept, never the entity, so the index stays
+ * small and nothing mutable is shared between sessions.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class PersonNameIndex {
+
+    /**
+     * Locale for case folding.
+     */
+    private static final Locale RUSSIAN = new Locale("ru");
+
+    /**
+     * Upper bound of counted matches, a longer prefix narrows the list.
+     */
+    private final int maxMatches;
+
+    /**
+     * Indexed persons by ID.
+     */
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * Indexed persons by their full name order.
+     */
+    private final NavigableSet<Entry> all = new TreeSet<>(Entry.ORDER);
+
+    /**
+     * Indexed persons by every folded part of the full name.
+     */
+    private final NavigableMap<String, NavigableSet<Entry>> tokens
+            = new TreeMap<>();
+
+    /**
+     * Guards the maps above.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor.
+     *
+     * @param maxMatches - upper bound of counted matches.
+     */
+    public PersonNameIndex(final int maxMatches) {
+        this.maxMatches = maxMatches;
+    }
+
+    /**
+     * Add or replace a person.
+     *
+     * @param person - person.
+     */
+    public void put(final Person person) {
+        Entry entry = new Entry(person);
+        lock.writeLock().lock();
+        try {
+            removeEntry(person.getId());
+            entries.put(entry.id, entry);
+            all.add(entry);
+            for (String token : entry.tokens) {
+                tokens.computeIfAbsent(token, t -> new TreeSet<>(Entry.ORDER))
+                        .add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a person.
+     *
+     * @param id - person ID.
+     */
+    public void remove(final Long id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find a person by ID.
+     *
+     * @param id - person ID.
+     * @return ID and name of the person or null.
+     */
+    public PersonName get(final Long id) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            return entry == null ? null : entry.name;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find persons whose every typed word starts some part of the full name.
+     *
+     * @param text   - typed text.
+     * @param offset - index of the first match.
+     * @param limit  - maximum number of matches.
+     * @return matches ordered by the name part matching the most
+     * selective word, then by full name.
+     */
+    public List<PersonName> search(final String text,
+                                   final int offset,
+                                   final int limit) {
+        List<PersonName> result = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            int skipped = 0;
+            for (Entry entry : matches(split(text))) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(entry.name);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Count matches of the typed text, at most the configured bound.
+     *
+     * @param text - typed text.
+     * @return number of matches.
+     */
+    public int count(final String text) {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (Entry ignored : matches(split(text))) {
+                if (++count >= maxMatches) {
+                    break;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed persons.
+     *
+     * @return size of the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lazily iterate over the matches of the typed words.
+     * Only the name parts starting with the most selective word are
+     * walked, the other words are checked on those candidates.
+     * Must be called under the read lock.
+     *
+     * @param words - folded typed words.
+     * @return matches without duplicates.
+     */
+    private Iterable<Entry> matches(final String[] words) {
+        if (words.length == 0) {
+            return all;
+        }
+        String driver = mostSelective(words);
+        Iterable<Map.Entry<String, NavigableSet<Entry>>> groups =
+                range(driver).entrySet();
+        return () -> new Iterator<Entry>() {
+
+            /**
+             * Persons grouped by the matched name part.
+             */
+            private final Iterator<Map.Entry<String, NavigableSet<Entry>>>
+                    group = groups.iterator();
+
+            /**
+             * Matched name part of the current group.
+             */
+            private String token;
+
+            /**
+             * Persons of the current group.
+             */
+            private Iterator<Entry> current = Collections.emptyIterator();
+
+            /**
+             * Next match or null.
+             */
+            private Entry next = advance();
+
+            /**
+             * Find the next match. A person with several name parts
+             * starting with the word is only taken in the group of the
+             * first of them.
+             *
+             * @return next match or null.
+             */
+            private Entry advance() {
+                while (true) {
+                    while (!current.hasNext()) {
+                        if (!group.hasNext()) {
+                            return null;
+                        }
+                        Map.Entry<String, NavigableSet<Entry>> entry =
+                                group.next();
+                        token = entry.getKey();
+                        current = entry.getValue().iterator();
+                    }
+                    Entry candidate = current.next();
+                    if (token.equals(candidate.firstTokenStarting(driver))
+                            && candidate.matchesAll(words)) {
+                        return candidate;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Entry next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Entry result = next;
+                next = advance();
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Find the typed word with the fewest candidates. Counting stops as
+     * soon as a word has more candidates than the best one so far, so
+     * only the name parts of the selective words are looked at.
+     * Must be called under the read lock.
+     *
+     * @param words - folded typed words.
+     * @return the word to walk.
+     */
+    private String mostSelective(final String[] words) {
+        String best = words[0];
+        long bestSize = Long.MAX_VALUE;
+        for (String word : words) {
+            long size = 0;
+            for (NavigableSet<Entry> group : range(word).values()) {
+                size += group.size();
+                if (size >= bestSize) {
+                    break;
+                }
+            }
+            if (size < bestSize) {
+                best = word;
+                bestSize = size;
+            }
+            if (bestSize == 0) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Name parts starting with a word.
+     *
+     * @param word - folded word.
+     * @return persons by name part.
+     */
+    private NavigableMap<String, NavigableSet<Entry>> range(
+            final String word) {
+        return tokens.subMap(word, true, word + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Remove a person. Must be called under the write lock.
+     *
+     * @param id - person ID.
+     */
+    private void removeEntry(final Long id) {
+        Entry old = entries.remove(id);
+        if (old == null) {
+            return;
+        }
+        all.remove(old);
+        for (String token : old.tokens) {
+            NavigableSet<Entry> set = tokens.get(token);
+            if (set != null) {
+                set.remove(old);
+                if (set.isEmpty()) {
+                    tokens.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fold a text for comparison.
+     *
+     * @param text - text.
+     * @return lower case text with "ё" replaced by "е".
+     */
+    static String fold(final String text) {
+        return text == null
+                ? ""
+                : text.trim().toLowerCase(RUSSIAN).replace('ё', 'е');
+    }
+
+    /**
+     * Split the typed text into folded words.
+     *
+     * @param text - typed text.
+     * @return folded words.
+     */
+    private static String[] split(final String text) {
+        String folded = fold(text);
+        return folded.isEmpty() ? new String[0] : folded.split("\\s+");
+    }
+
+    /**
+     * Indexed person with its folded name parts.
+     */
+    private static final class Entry {
+
+        /**
+         * Full name order, the ID makes it total.
+         */
+        private static final Comparator<Entry> ORDER = Comparator
+                .<Entry, String>comparing(e -> e.sortKey)
+                .thenComparing(e -> e.id);
+
+        /**
+         * Person ID.
+         */
+        private final Long id;
+
+        /**
+         * ID and display name of the person.
+         */
+        private final PersonName name;
+
+        /**
+         * Folded full name.
+         */
+        private final String sortKey;
+
+        /**
+         * Folded name parts.
+         */
+        private final String[] tokens;
+
+        /**
+         * Constructor.
+         *
+         * @param person - indexed person.
+         */
+        private Entry(final Person person) {
+            this.id = person.getId();
+            this.name = new PersonName(person);
+            this.tokens = new String[]{
+                    fold(person.getLastName()),
+                    fold(person.getName()),
+                    fold(person.getPatronymic())
+            };
+            this.sortKey = String.join(" ", tokens);
+        }
+
+        /**
+         * First name part, in the index order, starting with a word.
+         *
+         * @param word - folded word.
+         * @return name part or null.
+         */
+        private String firstTokenStarting(final String word) {
+            String first = null;
+            for (String token : tokens) {
+                if (token.startsWith(word)
+                        && (first == null || token.compareTo(first) < 0)) {
+                    first = token;
+                }
+            }
+            return first;
+        }
+
+        /**
+         * Check that every word starts some name part.
+         *
+         * @param words - folded typed words.
+         * @return true if all words match.
+         */
+        private boolean matchesAll(final String[] words) {
+            for (String word : words) {
+                boolean found = false;
+                for (String token : tokens) {
+                    if (token.startsWith(word)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Doctor;
+import com.hospital.application.entity.Patient;
+import com.hospital.application.entity.Person;
+import com.hospital.application.event.EntityChangedEvent;
+import com.hospital.application.repository.DoctorRepository;
+import com.hospital.application.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Doctor and patient lookups for drop-down lists, shared by all sessions.
+ * The IDs and names of both tables are loaded once into
+ * {@link PersonNameIndex}es which are kept current by the persistence
+ * events of every save and delete. The matches of a list window are read
+ * by their IDs, so every session gets its own entities.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Service
+public class ReferenceDataService {
+
+    /**
+     * Rows read per query while loading the indexes.
+     */
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    /**
+     * Doctor records repository.
+     */
+    private final DoctorRepository doctorRepository;
+
+    /**
+     * Patient records repository.
+     */
+    private final PatientRepository patientRepository;
+
+    /**
+     * Index of doctor names.
+     */
+    private final PersonNameIndex doctors;
+
+    /**
+     * Index of patient names.
+     */
+    private final PersonNameIndex patients;
+
+    /**
+     * Constructor.
+     *
+     * @param doctorRepository  - doctor records repository.
+     * @param patientRepository - patient records repository.
+     * @param maxMatches        - upper bound of matches shown in a list.
+     */
+    public ReferenceDataService(
+            final DoctorRepository doctorRepository,
+            final PatientRepository patientRepository,
+            @Value("${hospital.lookup.max-matches:1000}") final int maxMatches) {
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.doctors = new PersonNameIndex(maxMatches);
+        this.patients = new PersonNameIndex(maxMatches);
+    }
+
+    /**
+     * Load both indexes when the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        load(doctorRepository::findByIdGreaterThanOrderByIdAsc, doctors);
+        load(patientRepository::findByIdGreaterThanOrderByIdAsc, patients);
+    }
+
+    /**
+     * Keep the indexes current after every committed change.
+     *
+     * @param event - persistence event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(final EntityChangedEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Doctor) {
+            apply(doctors, (Doctor) entity, event.getChangeType());
+        } else if (entity instanceof Patient) {
+            apply(patients, (Patient) entity, event.getChangeType());
+        }
+    }
+
+    /**
+     * Find doctors matching the typed text.
+     *
+     * @param prefix - typed text.
+     * @param offset - index of the first doctor.
+     * @param limit  - maximum number of doctors.
+     * @return doctors ordered by full name.
+     */
+    public List<Doctor> findDoctors(final String prefix,
+                                    final int offset,
+                                    final int limit) {
+        return findAll(doctorRepository,
+                doctors.search(prefix, offset, limit));
+    }
+
+    /**
+     * Count doctors matching the typed text.
+     *
+     * @param prefix - typed text.
+     * @return number of doctors.
+     */
+    public int countDoctors(final String prefix) {
+        return doctors.count(prefix);
+    }
+
+    /**
+     * Find the name of a doctor by ID.
+     *
+     * @param id - doctor ID.
+     * @return name shown to the users or null.
+     */
+    public String getDoctorName(final Long id) {
+        PersonName name = doctors.get(id);
+        return name == null ? null : name.getName();
+    }
+
+    /**
+     * Find patients matching the typed text.
+     *
+     * @param prefix - typed text.
+     * @param offset - index of the first patient.
+     * @param limit  - maximum number of patients.
+     * @return patients ordered by full name.
+     */
+    public List<Patient> findPatients(final String prefix,
+                                      final int offset,
+                                      final int limit) {
+        return findAll(patientRepository,
+                patients.search(prefix, offset, limit));
+    }
+
+    /**
+     * Read a patient by ID.
+     *
+     * @param id - patient ID.
+     * @return patient or null.
+     */
+    public Patient getPatient(final Long id) {
+        return patientRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Count patients matching the typed text.
+     *
+     * @param prefix - typed text.
+     * @return number of patients.
+     */
+    public int countPatients(final String prefix) {
+        return patients.count(prefix);
+    }
+
+    /**
+     * Read all persons into the index in windows of the ID order. Every
+     * window seeks the primary key after the last ID read, so the load
+     * neither skips nor repeats rows and costs the same per window.
+     *
+     * @param findNext - reads the persons following an ID.
+     * @param index    - index to fill.
+     * @param <P>      - person type.
+     */
+    private static <P extends Person> void load(
+            final BiFunction<Long, Pageable, List<P>> findNext,
+            final PersonNameIndex index) {
+        Pageable window = PageRequest.of(0, LOAD_PAGE_SIZE);
+        long after = 0;
+        List<P> persons;
+        do {
+            persons = findNext.apply(after, window);
+            persons.forEach(index::put);
+            if (!persons.isEmpty()) {
+                after = persons.get(persons.size() - 1).getId();
+            }
+        } while (persons.size() == LOAD_PAGE_SIZE);
+    }
+
+    /**
+     * Read the persons of matched names, in the order of the names.
+     *
+     * @param repository - person records repository.
+     * @param names      - matched names.
+     * @param <P>        - person type.
+     * @return persons still existing.
+     */
+    private static <P extends Person> List<P> findAll(
+            final JpaRepository<P, Long> repository,
+            final List<PersonName> names) {
+        if (names.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, P> byId = repository.findAllById(names.stream()
+                .map(PersonName::getId)
+                .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Person::getId, person -> person));
+        return names.stream()
+                .map(name -> byId.get(name.getId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Apply one change to the index.
+     *
+     * @param index      - index.
+     * @param person     - changed person.
+     * @param changeType - kind of change.
+     */
+    private static void apply(
+            final PersonNameIndex index,
+            final Person person,
+            final EntityChangedEvent.ChangeType changeType) {
+        if (changeType == EntityChangedEvent.ChangeType.DELETED) {
+            index.remove(person.getId());
+        } else {
+            index.put(person);
+        }
+    }
+}
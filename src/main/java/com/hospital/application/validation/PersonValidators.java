@@ -0,0 +1,58 @@
+package com.hospital.application.validation;
+
+import com.vaadin.flow.data.validator.RegexpValidator;
+import com.vaadin.flow.data.validator.StringLengthValidator;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Validation rules for person fields, shared by the tables
+ * and the CSV import.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public final class PersonValidators {
+
+    /**
+     * Minimum length of a name part or a specialization.
+     */
+    public static final int MIN_LENGTH = 3;
+
+    /**
+     * Maximum length of a name part or a specialization.
+     */
+    public static final int MAX_LENGTH = 20;
+
+    /**
+     * Pattern of a mobile number.
+     */
+    public static final String PHONE_NUMBER
+            = "(\\s*)?(\\+)?([- _():=+]?\\d[- _():=+]?){10,14}(\\s*)?";
+
+    /**
+     * Utility class.
+     */
+    private PersonValidators() {
+    }
+
+    /**
+     * Length rule for name parts and specialization.
+     *
+     * @param message - error message.
+     * @return validator.
+     */
+    public static StringLengthValidator length(final String message) {
+        return new StringLengthValidator(message, MIN_LENGTH, MAX_LENGTH);
+    }
+
+    /**
+     * Mobile number rule.
+     *
+     * @param message - error message.
+     * @return validator.
+     */
+    public static RegexpValidator phoneNumber(final String message) {
+        return new RegexpValidator(message, PHONE_NUMBER);
+    }
+}
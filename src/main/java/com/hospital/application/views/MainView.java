@@ -9,6 +9,7 @@ import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.component.tabs.TabsVariant;
@@ -30,6 +31,7 @@ import com.vaadin.flow.theme.lumo.Lumo;
 @CssImport("./styles/views/main/main-view.css")
 @PWA(name = "Hospital", shortName = "Hospital", enableInstallPrompt = false)
 @Theme(value = Lumo.class, variant = Lumo.DARK)
+@Push
 public class MainView extends AppLayout {
 
     /**
@@ -85,6 +87,8 @@ public class MainView extends AppLayout {
                 createTab("Пациенты", PatientsView.class),
                 createTab("Доктора", DoctorsView.class),
                 createTab("Рецепты", FormulasView.class),
+                createTab("Очередь", WorkQueueView.class),
+                createTab("Статистика", StatisticsView.class),
                 createTab("Контакты", ContactsView.class)
         };
     }
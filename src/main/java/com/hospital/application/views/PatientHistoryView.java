@@ -0,0 +1,182 @@
+package com.hospital.application.views;
+
+import com.hospital.application.entity.ArchivedFormula;
+import com.hospital.application.entity.BaseFormula;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.entity.Patient;
+import com.hospital.application.repository.ArchivedFormulaRepository;
+import com.hospital.application.repository.FormulaRepository;
+import com.hospital.application.repository.OffsetBasedPageRequest;
+import com.hospital.application.service.ReferenceDataService;
+import com.hospital.application.views.tables.PatientsView;
+import com.vaadin.flow.component.details.Details;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Label;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.router.BeforeEvent;
+import com.vaadin.flow.router.HasUrlParameter;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.router.RouterLink;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Prescription history of one patient, newest first.
+ * <p>
+ * The formulas are read page by page while the table scrolls, by the
+ * (patient_id, creation_date, id) index, so only the rows of the patient
+ * are touched. Archived formulas are in a second table, read only once
+ * it is opened.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Route(value = "patient", layout = MainView.class)
+@PageTitle("История пациента")
+public class PatientHistoryView extends VerticalLayout
+        implements HasUrlParameter<Long> {
+
+    /**
+     * Timeline ordering, newest first.
+     */
+    private static final Sort TIMELINE = Sort.by(Sort.Direction.DESC,
+            "creationDate", "id");
+
+    /**
+     * Formula records repository.
+     */
+    private final FormulaRepository formulaRepository;
+
+    /**
+     * Archived formula records repository.
+     */
+    private final ArchivedFormulaRepository archiveRepository;
+
+    /**
+     * Shared doctor and patient lookups.
+     */
+    private final ReferenceDataService referenceData;
+
+    /**
+     * Full name of the patient.
+     */
+    private final Label title = new Label();
+
+    /**
+     * Current formulas of the patient.
+     */
+    private final Grid<Formula> formulas = createTimeline();
+
+    /**
+     * Archived formulas of the patient.
+     */
+    private final Grid<ArchivedFormula> archive = createTimeline();
+
+    /**
+     * Collapsible section with the archived formulas.
+     */
+    private final Details archiveDetails = new Details();
+
+    /**
+     * ID of the shown patient.
+     */
+    private Long patientId;
+
+    /**
+     * Constructor.
+     * <p>
+     * Create the history tables.
+     *
+     * @param formulaRepository - formula records repository.
+     * @param archiveRepository - archived formula records repository.
+     * @param referenceData     - shared doctor and patient lookups.
+     */
+    @Autowired
+    public PatientHistoryView(
+            final FormulaRepository formulaRepository,
+            final ArchivedFormulaRepository archiveRepository,
+            final ReferenceDataService referenceData) {
+        this.formulaRepository = formulaRepository;
+        this.archiveRepository = archiveRepository;
+        this.referenceData = referenceData;
+        setId("patient-history-view");
+        setHeightFull();
+
+        archive.setHeight("300px");
+        archiveDetails.setSummaryText("Архив");
+        archiveDetails.setContent(archive);
+        archiveDetails.getElement().getStyle().set("width", "100%");
+        archiveDetails.addOpenedChangeListener(event -> {
+            if (event.isOpened()) {
+                archive.setDataProvider(timeline(patientId,
+                        archiveRepository::findByPatientId,
+                        archiveRepository::countByPatientId));
+            }
+        });
+
+        add(new RouterLink("Все пациенты", PatientsView.class),
+                title, formulas, archiveDetails);
+    }
+
+    @Override
+    public void setParameter(final BeforeEvent event, final Long id) {
+        patientId = id;
+        Patient patient = referenceData.getPatient(patientId);
+        title.setText(patient == null
+                ? "Пациент #" + patientId
+                : patient.toString() + ", " + patient.getNumber());
+
+        formulas.setDataProvider(timeline(patientId,
+                formulaRepository::findByPatientId,
+                formulaRepository::countByPatientId));
+        archiveDetails.setOpened(false);
+        archive.setItems();
+    }
+
+    /**
+     * Create a read-only history table.
+     *
+     * @param <T> formula table type.
+     * @return table.
+     */
+    private static <T extends BaseFormula> Grid<T> createTimeline() {
+        Grid<T> grid = new Grid<>();
+        grid.addColumn(BaseFormula::getCreationDate).setHeader("Создание");
+        grid.addColumn(BaseFormula::getDescription).setHeader("Описание");
+        grid.addColumn(BaseFormula::getDoctorName).setHeader("Доктор");
+        grid.addColumn(formula -> formula.getPriority().getLabel())
+                .setHeader("Приоритет");
+        grid.addColumn(BaseFormula::getValidity).setHeader("Срок годности");
+        return grid;
+    }
+
+    /**
+     * Lazy provider of the history of a patient in the timeline order.
+     *
+     * @param patientId - patient ID.
+     * @param find      - reads one window of formulas of the patient.
+     * @param count     - counts formulas of the patient.
+     * @param <T>       - formula table type.
+     * @return data provider.
+     */
+    private static <T extends BaseFormula> DataProvider<T, Void> timeline(
+            final Long patientId,
+            final BiFunction<Long, Pageable, List<T>> find,
+            final Function<Long, Long> count) {
+        return DataProvider.fromCallbacks(
+                query -> find.apply(patientId, new OffsetBasedPageRequest(
+                        query.getOffset(),
+                        Math.max(1, query.getLimit()),
+                        TIMELINE)).stream(),
+                query -> count.apply(patientId).intValue());
+    }
+}
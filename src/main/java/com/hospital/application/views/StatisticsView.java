@@ -0,0 +1,136 @@
+package com.hospital.application.views;
+
+import com.hospital.application.entity.Priority;
+import com.hospital.application.service.FormulaStatisticsService;
+import com.hospital.application.service.ReferenceDataService;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Label;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Prescription statistics: per doctor, per priority, per day of
+ * creation and formulas expiring soon.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Route(value = "statistics", layout = MainView.class)
+@PageTitle("Статистика")
+public class StatisticsView extends VerticalLayout {
+
+    /**
+     * Number of last days shown by creation date.
+     */
+    private static final int DAYS = 30;
+
+    /**
+     * Constructor.
+     * <p>
+     * Create the statistics tables.
+     *
+     * @param statistics    - prescription statistics.
+     * @param referenceData - shared doctor and patient lookups.
+     */
+    @Autowired
+    public StatisticsView(final FormulaStatisticsService statistics,
+                          final ReferenceDataService referenceData) {
+        setId("statistics-view");
+        setHeightFull();
+
+        LocalDate today = LocalDate.now();
+
+        List<Map.Entry<String, Long>> doctors = statistics.countByDoctor()
+                .entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .map(entry -> row(doctorName(referenceData, entry.getKey()),
+                        entry.getValue()))
+                .collect(Collectors.toList());
+
+        List<Map.Entry<String, Long>> priorities =
+                Arrays.stream(Priority.values())
+                .map(priority -> row(priority.getLabel(),
+                        statistics.countByPriority(priority)))
+                .collect(Collectors.toList());
+
+        List<Map.Entry<String, Long>> days = new ArrayList<>();
+        statistics.countByCreationDate(today.minusDays(DAYS - 1), today)
+                .descendingMap()
+                .forEach((day, count) ->
+                        days.add(row(day.toString(), count)));
+
+        List<Map.Entry<String, Long>> expiring = new ArrayList<>();
+        expiring.add(row("Сегодня", statistics.countExpiring(today, today)));
+        expiring.add(row("7 дней",
+                statistics.countExpiring(today, today.plusDays(7))));
+        expiring.add(row("30 дней",
+                statistics.countExpiring(today, today.plusDays(30))));
+
+        HorizontalLayout top = new HorizontalLayout(
+                createCountTable("Приоритет", priorities),
+                createCountTable("Истекают", expiring));
+        top.setWidthFull();
+        HorizontalLayout bottom = new HorizontalLayout(
+                createCountTable("Доктор", doctors),
+                createCountTable("Создание", days));
+        bottom.setSizeFull();
+
+        add(new Label("Рецепты"), top, bottom);
+    }
+
+    /**
+     * Create a table of counts.
+     *
+     * @param title - title of the counted value.
+     * @param rows  - pairs of value and count.
+     * @return table.
+     */
+    private static Grid<Map.Entry<String, Long>> createCountTable(
+            final String title,
+            final List<Map.Entry<String, Long>> rows) {
+        Grid<Map.Entry<String, Long>> grid = new Grid<>();
+        grid.addColumn(Map.Entry::getKey).setHeader(title);
+        grid.addColumn(Map.Entry::getValue).setHeader("Рецептов");
+        grid.setItems(rows);
+        grid.setHeightByRows(rows.size() < 10);
+        return grid;
+    }
+
+    /**
+     * Create a table row.
+     *
+     * @param value - counted value.
+     * @param count - number of formulas.
+     * @return row.
+     */
+    private static Map.Entry<String, Long> row(final String value,
+                                               final long count) {
+        return new AbstractMap.SimpleImmutableEntry<>(value, count);
+    }
+
+    /**
+     * Name of a doctor.
+     *
+     * @param referenceData - shared doctor lookups.
+     * @param id            - doctor ID.
+     * @return full name or the ID of an unknown doctor.
+     */
+    private static String doctorName(final ReferenceDataService referenceData,
+                                     final Long id) {
+        String name = referenceData.getDoctorName(id);
+        return name == null ? "#" + id : name;
+    }
+}
@@ -0,0 +1,68 @@
+package com.hospital.application.views;
+
+import com.hospital.application.entity.Formula;
+import com.hospital.application.repository.FormulaRepository;
+import com.hospital.application.repository.OffsetBasedPageRequest;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Work queue of the pharmacists: valid formulas, most urgent first and,
+ * within a priority, oldest first. Rows are read page by page in the
+ * queue order from its index, the head of the queue is never sorted.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@Route(value = "queue", layout = MainView.class)
+@PageTitle("Очередь")
+public class WorkQueueView extends VerticalLayout {
+
+    /**
+     * Formulas of the queue.
+     */
+    private final Grid<Formula> queue = new Grid<>();
+
+    /**
+     * Constructor.
+     * <p>
+     * Create the queue table.
+     *
+     * @param formulaRepository - formula records repository.
+     */
+    @Autowired
+    public WorkQueueView(final FormulaRepository formulaRepository) {
+        setId("work-queue-view");
+        setHeightFull();
+
+        queue.addColumn(formula -> formula.getPriority().getLabel())
+                .setHeader("Приоритет");
+        queue.addColumn(Formula::getCreationDate).setHeader("Создание");
+        queue.addColumn(Formula::getDescription).setHeader("Описание");
+        queue.addColumn(formula -> formula.getPatient() == null
+                ? "" : formula.getPatientName()).setHeader("Пациент");
+        queue.addColumn(Formula::getDoctorName).setHeader("Доктор");
+        queue.addColumn(Formula::getValidity).setHeader("Срок годности");
+        queue.setDataProvider(DataProvider.fromCallbacks(
+                query -> formulaRepository.findWorkQueue(LocalDate.now(),
+                        new OffsetBasedPageRequest(query.getOffset(),
+                                Math.max(1, query.getLimit()),
+                                Sort.unsorted()))
+                        .stream(),
+                query -> (int) formulaRepository
+                        .countByValidityGreaterThanEqual(LocalDate.now())));
+
+        add(new Button("Обновить",
+                event -> queue.getDataProvider().refreshAll()), queue);
+    }
+}
@@ -1,7 +1,15 @@
 package com.hospital.application.views.tables;
 
-import com.hospital.application.entity.Person;
+import com.hospital.application.event.EntityChangeBroadcaster;
+import com.hospital.application.event.EntityChanges;
+import com.hospital.application.repository.OffsetBasedPageRequest;
+import com.hospital.application.service.PersonCsvImporter;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.ItemLabelGenerator;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.Text;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.datepicker.DatePicker;
@@ -11,20 +19,42 @@ import com.vaadin.flow.component.grid.editor.Editor;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.FileBuffer;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.Validator;
-import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.DataKeyMapper;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.shared.Registration;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Hospital Application.
@@ -37,6 +67,11 @@ import java.util.WeakHashMap;
  */
 public abstract class AGridDiv<C> extends VerticalLayout {
 
+    /**
+     * ID property, the last sort order of every window.
+     */
+    private static final String ID = "id";
+
     /**
      * Status validation.
      */
@@ -68,19 +103,41 @@ public abstract class AGridDiv<C> extends VerticalLayout {
     protected JpaRepository<C, Long> repository;
 
     /**
-     * Data provider for filtering.
+     * Lazy data provider, fetches only the visible window of records.
+     */
+    protected DataProvider<C, Void> dataProvider;
+
+    /**
+     * The record type.
+     */
+    private final Class<C> beanType;
+
+    /**
+     * Bus of committed changes made by all sessions.
+     */
+    private final EntityChangeBroadcaster broadcaster;
+
+    /**
+     * Subscription to the bus while the table is attached.
+     */
+    private Registration broadcasterRegistration;
+
+    /**
+     * Full refresh is already scheduled for the current response.
      */
-    protected ListDataProvider<C> dataProvider;
+    private boolean refreshPending;
 
     /**
      * Constructor.
      * <p>
      * Initialization of the main parameters.
      *
-     * @param repos    - records repository.
-     * @param beanType - the record type.
+     * @param repos       - records repository.
+     * @param broadcaster - bus of committed changes.
+     * @param beanType    - the record type.
      */
     protected AGridDiv(final JpaRepository<C, Long> repos,
+                       final EntityChangeBroadcaster broadcaster,
                        final java.lang.Class<C> beanType) {
         this.grid = new Grid<>();
         this.binder = new Binder<>(beanType);
@@ -88,8 +145,13 @@ public abstract class AGridDiv<C> extends VerticalLayout {
         this.header = new HorizontalLayout();
         this.validStat = new Div();
         this.repository = repos;
-        this.dataProvider = new ListDataProvider<C>(repository.findAll());
+        this.broadcaster = broadcaster;
+        this.beanType = beanType;
         setDefaultHorizontalComponentAlignment(Alignment.CENTER);
+        setDataProvider(DataProvider.fromCallbacks(
+                query -> fetch(toPageable(query)),
+                query -> count()
+        ));
         editor.setBinder(binder);
         editor.setBuffered(true);
         header.setDefaultVerticalComponentAlignment(Alignment.CENTER);
@@ -112,17 +174,22 @@ public abstract class AGridDiv<C> extends VerticalLayout {
      * @param bindName      - bind name.
      * @param valueProvider - data provider.
      * @param validator     - validation control
+     * @return column, sorted in the database by the bound property.
      */
-    protected void createEditTextColumn(final String title,
+    protected Grid.Column<C> createEditTextColumn(final String title,
                                         final String bindName,
                                         final ValueProvider<C, ?> valueProvider,
                                         final Validator validator) {
-        Grid.Column<C> column = grid.addColumn(valueProvider).setHeader(title);
+        Grid.Column<C> column = grid.addColumn(valueProvider)
+                .setHeader(title)
+                .setSortProperty(bindName);
         TextField field = new TextField();
+        field.setId(bindName + "-editor");
         binder.forField(field)
                 .withValidator(validator)
                 .withStatusLabel(validStat).bind(bindName);
         column.setEditorComponent(field);
+        return column;
     }
 
     /**
@@ -131,17 +198,20 @@ public abstract class AGridDiv<C> extends VerticalLayout {
      * @param title         - title column.
      * @param bindName      - bind name.
      * @param valueProvider - data provider.
+     * @return column, sorted in the database by the bound property.
      */
-    protected void createDatePickerColumn(final String title,
+    protected Grid.Column<C> createDatePickerColumn(final String title,
                                           final String bindName,
                                           final ValueProvider<C, ?> valueProvider) {
-        Grid.Column<C> column = grid.addColumn(valueProvider).setHeader(title);
+        Grid.Column<C> column = grid.addColumn(valueProvider)
+                .setHeader(title)
+                .setSortProperty(bindName);
         DatePicker picker = new DatePicker();
         binder.forField(picker)
                 .asRequired("Please choose a date")
                 .withStatusLabel(validStat).bind(bindName);
         column.setEditorComponent(picker);
-
+        return column;
     }
 
     /**
@@ -151,20 +221,79 @@ public abstract class AGridDiv<C> extends VerticalLayout {
      * @param bindName      - bind name.
      * @param valueProvider - data provider.
      * @param list          - options to choose from.
+     * @param itemLabel     - names of the options shown to the users.
+     * @param <T>           - option type.
+     * @return column, sorted in the database by the bound property.
      */
-    protected void createCheckBoxColumn(final String title,
-                                        final String bindName,
-                                        final ValueProvider<C, ?> valueProvider,
-                                        final List list) {
-        Grid.Column<C> column = grid.addColumn(valueProvider).setHeader(title);
-        ComboBox<Person> box = new ComboBox<>();
+    protected <T> Grid.Column<C> createCheckBoxColumn(
+            final String title,
+            final String bindName,
+            final ValueProvider<C, ?> valueProvider,
+            final List<T> list,
+            final ItemLabelGenerator<T> itemLabel) {
+        ComboBox<T> box = new ComboBox<>();
+        box.setItems(list);
+        box.setItemLabelGenerator(itemLabel);
+        return addComboBoxColumn(title, bindName, valueProvider, box);
+    }
+
+    /**
+     * Create a column and edit the drop-down list for edit mode.
+     * Options are fetched lazily by the typed text.
+     *
+     * @param title         - title column.
+     * @param bindName      - bind name.
+     * @param valueProvider - data provider.
+     * @param fetchItems    - fetches one window of options.
+     * @param countItems    - counts options for the typed text.
+     * @param <T>           - option type.
+     * @return column, sorted in the database by the bound property.
+     */
+    protected <T> Grid.Column<C> createCheckBoxColumn(
+            final String title,
+            final String bindName,
+            final ValueProvider<C, ?> valueProvider,
+            final ComboBox.FetchItemsCallback<T> fetchItems,
+            final SerializableFunction<String, Integer> countItems) {
+        ComboBox<T> box = new ComboBox<>();
+        box.setDataProvider(fetchItems, countItems);
+        return addComboBoxColumn(title, bindName, valueProvider, box);
+    }
+
+    /**
+     * Add a column with the drop-down list as editor.
+     *
+     * @param title         - title column.
+     * @param bindName      - bind name.
+     * @param valueProvider - data provider.
+     * @param box           - drop-down list.
+     * @param <T>           - option type.
+     * @return column.
+     */
+    private <T> Grid.Column<C> addComboBoxColumn(final String title,
+                                       final String bindName,
+                                       final ValueProvider<C, ?> valueProvider,
+                                       final ComboBox<T> box) {
+        Grid.Column<C> column = grid.addColumn(valueProvider)
+                .setHeader(title)
+                .setSortProperty(bindName);
         binder.forField(box)
                 .withStatusLabel(validStat).bind(bindName);
         column.setEditorComponent(box);
-        box.setItems(list);
         box.setPlaceholder(title);
         box.setRequired(true);
         box.setClearButtonVisible(true);
+        return column;
+    }
+
+    /**
+     * Check whether a row may be opened in the editor.
+     *
+     * @param item - row.
+     * @return true if the row is editable.
+     */
+    protected boolean isEditable(final C item) {
+        return true;
     }
 
     /**
@@ -179,6 +308,7 @@ public abstract class AGridDiv<C> extends VerticalLayout {
             edit.addClassName("edit");
             edit.addClickListener(e -> editor.editItem(person));
             edit.setEnabled(!editor.isOpen());
+            edit.setVisible(isEditable(person));
             editButtons.add(edit);
             return edit;
         });
@@ -190,10 +320,9 @@ public abstract class AGridDiv<C> extends VerticalLayout {
 
         Button save = new Button("OK", new Icon(VaadinIcon.CHECK_CIRCLE), e -> {
             C c = editor.getItem();
-            editor.save();
-            repository.save(c);
-
-            update();
+            if (editor.save()) {
+                saveEdited(c);
+            }
         });
         save.addClassName("save");
 
@@ -207,10 +336,13 @@ public abstract class AGridDiv<C> extends VerticalLayout {
         Icon delIco = new Icon(VaadinIcon.CLOSE_CIRCLE);
         delIco.setColor("red");
         Button delete = new Button("Удалить", delIco, e -> {
+            C item = editor.getItem();
             try {
-                repository.delete(editor.getItem());
+                repository.delete(item);
                 editor.cancel();
-                update();
+            } catch (OptimisticLockingFailureException exception) {
+                editor.cancel();
+                showCommitted(item);
             } catch (DataIntegrityViolationException exception) {
                 Dialog dialog = new Dialog();
                 dialog.setCloseOnEsc(false);
@@ -241,6 +373,106 @@ public abstract class AGridDiv<C> extends VerticalLayout {
         );
     }
 
+    /**
+     * Save a record changed in the editor and show the saved row.
+     * Only the changed columns are written. When another session has
+     * changed the record since it was read, nothing is written and the
+     * row shows the committed record again.
+     *
+     * @param item - record with the edited values.
+     */
+    private void saveEdited(final C item) {
+        try {
+            dataProvider.refreshItem(reload(repository.save(item)));
+        } catch (OptimisticLockingFailureException exception) {
+            showCommitted(item);
+        }
+    }
+
+    /**
+     * Tell the user that another session has changed or deleted a record
+     * and show its committed state, or refresh the table when it is gone.
+     *
+     * @param item - record changed by another session.
+     */
+    private void showCommitted(final C item) {
+        Notification.show("Запись изменена другим пользователем,"
+                + " показаны сохранённые данные");
+        Optional<C> committed = findCommitted(item);
+        if (committed.isPresent()) {
+            dataProvider.refreshItem(committed.get());
+        } else {
+            update();
+        }
+    }
+
+    /**
+     * Read the committed state of a record, with everything the table
+     * shows of it, as a new instance of this session.
+     *
+     * @param item - record, only its ID is used.
+     * @return record, empty if it has been deleted.
+     */
+    protected abstract Optional<C> findCommitted(C item);
+
+    /**
+     * Creating an upload button for a CSV import.
+     * The uploaded file is imported in the background, the result is
+     * shown when the import has finished.
+     *
+     * @param importer  - CSV importer running the import.
+     * @param csvImport - import of the uploaded text.
+     * @return upload component.
+     */
+    protected Upload createCsvUpload(final PersonCsvImporter importer,
+                                     final CsvImport csvImport) {
+        FileBuffer buffer = new FileBuffer();
+        Upload upload = new Upload(buffer);
+        upload.setAcceptedFileTypes(".csv", "text/csv");
+        upload.setDropAllowed(false);
+        upload.setUploadButton(new Button("Импорт CSV"));
+        upload.addSucceededListener(event -> {
+            UI ui = UI.getCurrent();
+            File file = buffer.getFileData().getFile();
+            try {
+                importer.submit(() -> {
+                    try (Reader reader = new InputStreamReader(
+                            new FileInputStream(file),
+                            StandardCharsets.UTF_8)) {
+                        return csvImport.apply(reader);
+                    } finally {
+                        file.delete();
+                    }
+                }).addCallback(
+                        result -> notifyLater(ui, result.toString()),
+                        failure -> notifyLater(ui,
+                                failure instanceof IOException
+                                        ? "Не удалось прочитать файл"
+                                        : "Импорт не выполнен"));
+                Notification.show("Импорт начат");
+            } catch (TaskRejectedException exception) {
+                file.delete();
+                Notification.show("Выполняется слишком много импортов,"
+                        + " повторите позже");
+            }
+        });
+        return upload;
+    }
+
+    /**
+     * Show a notification from a background thread.
+     *
+     * @param ui   - UI to show it in.
+     * @param text - notification text.
+     */
+    private static void notifyLater(final UI ui, final String text) {
+        try {
+            ui.access(() -> Notification.show(text));
+        } catch (UIDetachedException ignored) {
+            // The session is gone, nobody to tell.
+        }
+    }
+
     /**
      * creating a unique header for each table.
      */
@@ -250,8 +482,158 @@ public abstract class AGridDiv<C> extends VerticalLayout {
      * Update info about records.
      */
     protected void update() {
-        grid.setItems(repository.findAll());
-        this.dataProvider = new ListDataProvider<>(repository.findAll());
+        dataProvider.refreshAll();
+    }
+
+    /**
+     * Reload a changed record before it is shown again.
+     * Records without lazy associations are shown as received.
+     *
+     * @param item - changed record.
+     * @return record to show.
+     */
+    protected C reload(final C item) {
+        return item;
+    }
+
+    @Override
+    protected void onAttach(final AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        broadcasterRegistration = broadcaster.register(
+                changes -> onEntitiesChanged(ui, changes));
+    }
+
+    @Override
+    protected void onDetach(final DetachEvent detachEvent) {
+        broadcasterRegistration.remove();
+        broadcasterRegistration = null;
+        super.onDetach(detachEvent);
+    }
+
+    /**
+     * Push the committed changes of a transaction to the table.
+     * Updated records arrive as committed copies of this table's own and
+     * replace their rows in place, only when the row has been loaded.
+     * Inserts, deletes, bulk updates and updates of records deleted since
+     * refresh the visible window once per response. No query is run
+     * here, the bus has read the records once for all sessions.
+     *
+     * @param ui      - UI of the table.
+     * @param changes - changes of one transaction.
+     */
+    private void onEntitiesChanged(final UI ui, final EntityChanges changes) {
+        boolean reloaded = changes.isReloaded(beanType);
+        List<C> updated = reloaded
+                ? Collections.emptyList() : changes.getUpdated(beanType);
+        if (!reloaded && updated.isEmpty()) {
+            return;
+        }
+        try {
+            ui.access(() -> {
+                DataKeyMapper<C> loaded = grid.getDataCommunicator()
+                        .getKeyMapper();
+                for (C committed : updated) {
+                    if (loaded.has(committed)) {
+                        dataProvider.refreshItem(committed);
+                    }
+                }
+                if (reloaded && !refreshPending) {
+                    refreshPending = true;
+                    ui.beforeClientResponse(grid, context -> {
+                        refreshPending = false;
+                        update();
+                    });
+                }
+            });
+        } catch (UIDetachedException ignored) {
+            // The session is gone, the table will be detached shortly.
+        }
+    }
+
+    /**
+     * Fetch one window of records.
+     *
+     * @param pageable - offset, limit and ordering of the window.
+     * @return records of the window.
+     */
+    protected Stream<C> fetch(final Pageable pageable) {
+        return repository.findAll(pageable).getContent().stream();
+    }
+
+    /**
+     * Count all records shown in the table.
+     *
+     * @return number of records.
+     */
+    protected int count() {
+        return (int) repository.count();
+    }
+
+    /**
+     * Replace the data provider of the table.
+     * Its backend calls are timed.
+     *
+     * @param provider - data provider.
+     */
+    protected void setDataProvider(final DataProvider<C, Void> provider) {
+        dataProvider = new TimedDataProvider<>(provider,
+                beanType.getSimpleName());
         grid.setDataProvider(dataProvider);
     }
+
+    /**
+     * Translate the grid query into a repository page request.
+     *
+     * @param query - grid query.
+     * @return page request for the same window and ordering.
+     */
+    protected static Pageable toPageable(final Query<?, ?> query) {
+        return new OffsetBasedPageRequest(
+                query.getOffset(),
+                Math.max(1, query.getLimit()),
+                toSort(query.getSortOrders())
+        );
+    }
+
+    /**
+     * Translate the grid sort orders into a repository sort.
+     * The ID is always added last, in the direction of the last order,
+     * so rows with equal sort values keep their place between windows and
+     * the ordering matches the (column, id) indexes.
+     *
+     * @param sortOrders - grid sort orders.
+     * @return repository sort.
+     */
+    protected static Sort toSort(final List<QuerySortOrder> sortOrders) {
+        List<Sort.Order> orders = sortOrders.stream()
+                .map(order -> order.getDirection() == SortDirection.ASCENDING
+                        ? Sort.Order.asc(order.getSorted())
+                        : Sort.Order.desc(order.getSorted()))
+                .collect(Collectors.toList());
+        if (orders.stream()
+                .noneMatch(order -> ID.equals(order.getProperty()))) {
+            orders.add(orders.isEmpty()
+                    ? Sort.Order.asc(ID)
+                    : new Sort.Order(
+                            orders.get(orders.size() - 1).getDirection(), ID));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * Import of an uploaded CSV text.
+     */
+    @FunctionalInterface
+    protected interface CsvImport {
+
+        /**
+         * Import the text.
+         *
+         * @param reader - CSV text.
+         * @return import statistics.
+         * @throws IOException if the text can not be read.
+         */
+        PersonCsvImporter.Result apply(Reader reader) throws IOException;
+    }
 }
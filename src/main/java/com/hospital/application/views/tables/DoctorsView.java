@@ -1,7 +1,9 @@
 package com.hospital.application.views.tables;
 
 import com.hospital.application.entity.Doctor;
+import com.hospital.application.event.EntityChangeBroadcaster;
 import com.hospital.application.repository.DoctorRepository;
+import com.hospital.application.service.PersonCsvImporter;
 import com.hospital.application.views.MainView;
 import com.vaadin.flow.component.HasValue;
 import com.vaadin.flow.component.button.Button;
@@ -9,12 +11,16 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
 import com.vaadin.flow.data.renderer.TemplateRenderer;
-import com.vaadin.flow.data.validator.StringLengthValidator;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.PreserveOnRefresh;
 import com.vaadin.flow.router.Route;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Optional;
+
+import static com.hospital.application.validation.PersonValidators.MAX_LENGTH;
+import static com.hospital.application.validation.PersonValidators.length;
+
 /**
  * Hospital Application.
  * <p>
@@ -28,23 +34,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 @PreserveOnRefresh
 public class DoctorsView extends AGridDiv<Doctor> {
 
+    /**
+     * CSV importer.
+     */
+    private final PersonCsvImporter importer;
+
     /**
      * Constructor.
      * <p>
      * Initialization of the main parameters.
      *
-     * @param repository - main records repository.
+     * @param repository  - main records repository.
+     * @param broadcaster - bus of committed changes.
+     * @param importer    - CSV importer.
      */
     @Autowired
-    protected DoctorsView(final DoctorRepository repository) {
-        super(repository, Doctor.class);
-        final int minLength = 3;
-        final int maxLength = 20;
+    protected DoctorsView(final DoctorRepository repository,
+                          final EntityChangeBroadcaster broadcaster,
+                          final PersonCsvImporter importer) {
+        super(repository, broadcaster, Doctor.class);
+        this.importer = importer;
         setId("doctors-view");
 
         createPanelAddEntry();
 
-        grid.setItems(repository.findAll());
         grid.setHeight("70%");
         grid.setItemDetailsRenderer(TemplateRenderer.<Doctor>of(
                 "<div class='custom-details' style='border: 1px solid gray; padding: 10px; width: 100%; box-sizing: border-box;'>"
@@ -61,93 +74,63 @@ public class DoctorsView extends AGridDiv<Doctor> {
                 "Фамилия",
                 "lastName",
                 Doctor::getLastName,
-                new StringLengthValidator(
-                        "Слишком длинная фамилия",
-                        minLength,
-                        maxLength
-                )
-        );
+                length("Слишком длинная фамилия")
+        ).setSortProperty("lastName", "name", "patronymic");
         createEditTextColumn(
                 "Имя",
                 "name",
                 Doctor::getName,
-                new StringLengthValidator(
-                        "Слишком длинное имя",
-                        minLength,
-                        maxLength
-                )
+                length("Слишком длинное имя")
         );
         createEditTextColumn(
                 "Отчество",
                 "patronymic",
                 Doctor::getPatronymic,
-                new StringLengthValidator(
-                        "Слишком длинное отчество",
-                        minLength,
-                        maxLength
-                )
+                length("Слишком длинное отчество")
         );
         createEditTextColumn(
                 "Специализация",
                 "specialization",
                 Doctor::getSpecialization,
-                new StringLengthValidator(
-                        "Слишком длинное отчество",
-                        minLength,
-                        maxLength
-                )
+                length("Слишком длинное отчество")
         );
 
         createEditBtms();
     }
 
     @Override
-    protected void createPanelAddEntry() {
-        final int minLength = 3;
-        final int maxLength = 20;
+    protected Optional<Doctor> findCommitted(final Doctor item) {
+        return repository.findById(item.getId());
+    }
 
+    @Override
+    protected void createPanelAddEntry() {
         Binder<Doctor> patientBinder = new Binder<>(Doctor.class);
 
         TextField numberInput = new TextField("Специализация");
         numberInput.setClearButtonVisible(true);
         TextField nameInput = new TextField("Имя");
-        nameInput.setMaxLength(maxLength);
+        nameInput.setMaxLength(MAX_LENGTH);
         TextField lastNameInput = new TextField("Фамилия");
-        lastNameInput.setMaxLength(maxLength);
+        lastNameInput.setMaxLength(MAX_LENGTH);
         TextField patronymicInput = new TextField("Отчество");
-        patronymicInput.setMaxLength(maxLength);
+        patronymicInput.setMaxLength(MAX_LENGTH);
 
         patientBinder.forField(lastNameInput)
                 .withValidator(
-                        new StringLengthValidator(
-                                "Фамилия не корректна",
-                                minLength,
-                                maxLength
-                        )
+                        length("Фамилия не корректна")
                 ).bind(Doctor::getLastName, Doctor::setLastName);
         patientBinder.forField(nameInput)
                 .withValidator(
-                        new StringLengthValidator(
-                                "Имя не корректно",
-                                minLength,
-                                maxLength
-                        )
+                        length("Имя не корректно")
                 ).bind(Doctor::getName, Doctor::setName);
         patientBinder.forField(patronymicInput)
                 .withValidator(
-                        new StringLengthValidator(
-                                "Отчество не корректно",
-                                minLength,
-                                maxLength
-                        )
+                        length("Отчество не корректно")
                 ).bind(Doctor::getPatronymic, Doctor::setPatronymic);
         patientBinder.forField(numberInput)
                 .withValidator(
-                        new StringLengthValidator(
-                                "Специализация не корректна",
-                                minLength,
-                                maxLength
-                        )
+                        length("Специализация не корректна")
                 ).bind(Doctor::getSpecialization, Doctor::setSpecialization);
 
         Button btnAdd = new Button("Добавить");
@@ -162,7 +145,6 @@ public class DoctorsView extends AGridDiv<Doctor> {
                         f.setInvalid(false);
                     });
                     repository.save(p);
-                    update();
                 } catch (ValidationException ex) {
                     ex.printStackTrace();
                 }
@@ -174,7 +156,8 @@ public class DoctorsView extends AGridDiv<Doctor> {
                 patronymicInput,
                 lastNameInput,
                 numberInput,
-                btnAdd
+                btnAdd,
+                createCsvUpload(importer, importer::importDoctors)
         );
     }
 
@@ -0,0 +1,352 @@
+package com.hospital.application.views.tables;
+
+import com.hospital.application.entity.ArchivedFormula;
+import com.hospital.application.entity.BaseFormula;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.repository.ArchivedFormulaRepository;
+import com.hospital.application.repository.FormulaKeyset;
+import com.hospital.application.repository.FormulaRepository;
+import com.hospital.application.repository.OffsetBasedPageRequest;
+import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.function.SerializableSupplier;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Formulas provider for the grid, paging by key while the user scrolls.
+ * <p>
+ * The last row of every fetched window is remembered by its offset.
+ * The next window is read by seeking the (date, id) index to that row,
+ * so scrolling further costs the same at any depth. A jump far away from
+ * every remembered row falls back to offset paging once and is
+ * remembered from then on. Without a sort the rows are shown by
+ * creation date; a sort by a column without a key index is paged by
+ * offset.
+ * <p>
+ * With the archive included both tables are read by key and merged, the
+ * archived rows are shown as read-only formulas. Offset paging is not
+ * possible across two tables, so a sort without a key index falls back
+ * to the creation date order, and a far jump is positioned by a binary
+ * search over the number of rows taken from each table. Every step reads
+ * two rows of each table by offset, so the jump costs a few queries and
+ * never holds more than a window of rows.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class FormulaKeysetDataProvider
+        extends AbstractBackEndDataProvider<Formula, Void> {
+
+    /**
+     * Upper bound of remembered rows.
+     */
+    private static final int MAX_BOOKMARKS = 1000;
+
+    /**
+     * Rows read and dropped after a remembered row before
+     * offset paging is cheaper.
+     */
+    private static final int MAX_SKIP = 500;
+
+    /**
+     * Formula records repository.
+     */
+    private final FormulaRepository repository;
+
+    /**
+     * Archived formula records repository.
+     */
+    private final ArchivedFormulaRepository archiveRepository;
+
+    /**
+     * Current filter condition.
+     */
+    private final SerializableSupplier<Specification<Formula>> filter;
+
+    /**
+     * Current filter condition for the archive.
+     */
+    private final SerializableSupplier<Specification<ArchivedFormula>>
+            archiveFilter;
+
+    /**
+     * Archived formulas are shown too.
+     */
+    private boolean includeArchive;
+
+    /**
+     * Last row before an offset, by offset.
+     */
+    private final NavigableMap<Integer, Formula> bookmarks = new TreeMap<>();
+
+    /**
+     * Ordering the bookmarks belong to.
+     */
+    private Sort bookmarkSort = Sort.unsorted();
+
+    /**
+     * Constructor.
+     *
+     * @param repository        - formula records repository.
+     * @param archiveRepository - archived formula records repository.
+     * @param filter            - current filter condition.
+     * @param archiveFilter     - current filter condition for the archive.
+     */
+    public FormulaKeysetDataProvider(
+            final FormulaRepository repository,
+            final ArchivedFormulaRepository archiveRepository,
+            final SerializableSupplier<Specification<Formula>> filter,
+            final SerializableSupplier<Specification<ArchivedFormula>>
+                    archiveFilter) {
+        this.repository = repository;
+        this.archiveRepository = archiveRepository;
+        this.filter = filter;
+        this.archiveFilter = archiveFilter;
+    }
+
+    /**
+     * Show or hide archived formulas.
+     *
+     * @param includeArchive - archived formulas are shown too.
+     */
+    public void setIncludeArchive(final boolean includeArchive) {
+        this.includeArchive = includeArchive;
+        refreshAll();
+    }
+
+    @Override
+    protected Stream<Formula> fetchFromBackEnd(
+            final Query<Formula, Void> query) {
+        List<QuerySortOrder> sortOrders = query.getSortOrders();
+        FormulaKeyset keyset = keysetOf(sortOrders);
+        boolean keyed = keyset != null;
+        if (!keyed) {
+            if (!includeArchive) {
+                return repository.findAll(filter.get(),
+                        AGridDiv.toPageable(query)).getContent().stream();
+            }
+            keyset = FormulaKeyset.CREATION_DATE;
+        }
+        Sort.Direction direction = !keyed || sortOrders.isEmpty()
+                || sortOrders.get(0).getDirection() == SortDirection.ASCENDING
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        Sort sort = keyset.sort(direction);
+        if (!sort.equals(bookmarkSort)) {
+            bookmarks.clear();
+            bookmarkSort = sort;
+        }
+
+        int offset = query.getOffset();
+        int limit = query.getLimit();
+        Map.Entry<Integer, Formula> bookmark = bookmarks.floorEntry(offset);
+        int from = bookmark == null ? 0 : bookmark.getKey();
+        List<Formula> rows;
+        if (offset - from <= MAX_SKIP) {
+            rows = findNext(keyset, direction,
+                    bookmark == null ? null : bookmark.getValue(),
+                    offset - from + limit);
+            rows = rows.subList(Math.min(offset - from, rows.size()),
+                    rows.size());
+        } else if (includeArchive) {
+            Formula before = rowBefore(keyset, direction, offset);
+            rows = before == null ? Collections.emptyList()
+                    : findNext(keyset, direction, before, limit);
+        } else {
+            rows = repository.findAll(filter.get(),
+                    new OffsetBasedPageRequest(offset, limit, sort))
+                    .getContent();
+        }
+        if (!rows.isEmpty()) {
+            remember(offset + rows.size(), rows.get(rows.size() - 1));
+        }
+        return rows.stream();
+    }
+
+    @Override
+    protected int sizeInBackEnd(final Query<Formula, Void> query) {
+        long size = repository.count(filter.get());
+        if (includeArchive) {
+            size += archiveRepository.count(archiveFilter.get());
+        }
+        return (int) size;
+    }
+
+    @Override
+    public void refreshAll() {
+        bookmarks.clear();
+        super.refreshAll();
+    }
+
+    /**
+     * Formulas following a known row in the key order, from the current
+     * table or from both tables.
+     *
+     * @param keyset    - key ordering.
+     * @param direction - direction of the ordering.
+     * @param after     - last row of the previous window or null.
+     * @param limit     - maximum number of rows.
+     * @return formulas in the key order.
+     */
+    private List<Formula> findNext(final FormulaKeyset keyset,
+                                   final Sort.Direction direction,
+                                   final Formula after,
+                                   final int limit) {
+        List<Formula> current = repository.findNext(
+                filter.get(), keyset, direction, after, limit);
+        if (!includeArchive) {
+            return current;
+        }
+        List<ArchivedFormula> archived = archiveRepository.findNext(
+                archiveFilter.get(), keyset, direction, after, limit);
+        return Stream.concat(current.stream(),
+                archived.stream().map(ArchivedFormula::toFormula))
+                .sorted(order(keyset, direction))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Find the last row before an offset of both tables merged.
+     * <p>
+     * The rows before the offset are the first i rows of the current
+     * table and the first offset - i rows of the archive. The split i is
+     * searched for so that the last row taken from each table comes
+     * before the first row left in the other one.
+     *
+     * @param keyset    - key ordering.
+     * @param direction - direction of the ordering.
+     * @param offset    - offset in both tables merged, above zero.
+     * @return last row before the offset, null if the offset is past
+     * the last row.
+     */
+    private Formula rowBefore(final FormulaKeyset keyset,
+                              final Sort.Direction direction,
+                              final int offset) {
+        Comparator<BaseFormula> order = order(keyset, direction);
+        long currentSize = repository.count(filter.get());
+        long archiveSize = archiveRepository.count(archiveFilter.get());
+        if (offset > currentSize + archiveSize) {
+            return null;
+        }
+        int low = (int) Math.max(0, offset - archiveSize);
+        int high = (int) Math.min(offset, currentSize);
+        while (low <= high) {
+            int split = (low + high) >>> 1;
+            List<Formula> current = repository.findAt(filter.get(),
+                    keyset, direction, Math.max(0, split - 1),
+                    split == 0 ? 1 : 2);
+            List<Formula> archived = archiveRepository.findAt(
+                    archiveFilter.get(), keyset, direction,
+                    Math.max(0, offset - split - 1),
+                    split == offset ? 1 : 2).stream()
+                    .map(ArchivedFormula::toFormula)
+                    .collect(Collectors.toList());
+            Formula currentLast = split == 0 ? null : rowAt(current, 0);
+            Formula currentNext = rowAt(current, split == 0 ? 0 : 1);
+            Formula archivedLast = split == offset
+                    ? null : rowAt(archived, 0);
+            Formula archivedNext = rowAt(archived, split == offset ? 0 : 1);
+            if (currentLast != null && archivedNext != null
+                    && order.compare(currentLast, archivedNext) > 0) {
+                high = split - 1;
+            } else if (archivedLast != null && currentNext != null
+                    && order.compare(archivedLast, currentNext) > 0) {
+                low = split + 1;
+            } else if (currentLast == null) {
+                return archivedLast;
+            } else if (archivedLast == null
+                    || order.compare(currentLast, archivedLast) > 0) {
+                return currentLast;
+            } else {
+                return archivedLast;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Row at an index of a short list.
+     *
+     * @param rows  - rows.
+     * @param index - index.
+     * @return row or null if the list is shorter.
+     */
+    private static Formula rowAt(final List<Formula> rows, final int index) {
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    /**
+     * Ordering of formulas of both tables, as read by key.
+     *
+     * @param keyset    - key ordering.
+     * @param direction - direction of the ordering.
+     * @return comparator of the ordering.
+     */
+    private static Comparator<BaseFormula> order(
+            final FormulaKeyset keyset, final Sort.Direction direction) {
+        Comparator<BaseFormula> order = Comparator
+                .<BaseFormula, LocalDate>comparing(keyset::dateOf)
+                .thenComparing(BaseFormula::getId);
+        return direction.isAscending() ? order : order.reversed();
+    }
+
+    /**
+     * Whether formulas can be read in a grid ordering with the archive
+     * included.
+     *
+     * @param sortOrders - grid sort orders.
+     * @return true if the ordering has a key index.
+     */
+    static boolean isKeyed(final List<QuerySortOrder> sortOrders) {
+        return keysetOf(sortOrders) != null;
+    }
+
+    /**
+     * Find the key of the grid ordering.
+     *
+     * @param sortOrders - grid sort orders.
+     * @return key or null when the ordering has no key index.
+     */
+    private static FormulaKeyset keysetOf(
+            final List<QuerySortOrder> sortOrders) {
+        if (sortOrders.isEmpty()) {
+            return FormulaKeyset.CREATION_DATE;
+        }
+        if (sortOrders.size() > 1) {
+            return null;
+        }
+        return FormulaKeyset.ofProperty(sortOrders.get(0).getSorted())
+                .orElse(null);
+    }
+
+    /**
+     * Remember the last row before an offset.
+     *
+     * @param offset - offset of the next window.
+     * @param row    - last row of the window.
+     */
+    private void remember(final int offset, final Formula row) {
+        bookmarks.put(offset, row);
+        if (bookmarks.size() > MAX_BOOKMARKS) {
+            bookmarks.remove(offset == bookmarks.firstKey()
+                    ? bookmarks.lastKey()
+                    : bookmarks.firstKey());
+        }
+    }
+}
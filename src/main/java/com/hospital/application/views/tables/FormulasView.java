@@ -1,31 +1,63 @@
 package com.hospital.application.views.tables;
 
+import com.hospital.application.entity.ArchivedFormula;
+import com.hospital.application.entity.BaseFormula;
 import com.hospital.application.entity.Doctor;
 import com.hospital.application.entity.Formula;
+import com.hospital.application.event.EntityChangeBroadcaster;
 import com.hospital.application.entity.Patient;
-import com.hospital.application.repository.DoctorRepository;
+import com.hospital.application.entity.Priority;
+import com.hospital.application.repository.ArchivedFormulaRepository;
 import com.hospital.application.repository.FormulaRepository;
-import com.hospital.application.repository.PatientRepository;
+import com.hospital.application.repository.FormulaSearchHit;
+import com.hospital.application.service.FormulaCsvExporter;
+import com.hospital.application.service.FormulaService;
+import com.hospital.application.service.ReferenceDataService;
 import com.hospital.application.views.MainView;
+import com.vaadin.flow.component.Html;
+import com.vaadin.flow.component.ItemLabelGenerator;
+import com.vaadin.flow.component.Key;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.HeaderRow;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.validator.StringLengthValidator;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.PreserveOnRefresh;
 import com.vaadin.flow.router.Route;
-import org.apache.commons.lang3.StringUtils;
+import com.vaadin.flow.server.StreamResource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.hospital.application.repository.FormulaSpecifications.createdBetween;
+import static com.hospital.application.repository.FormulaSpecifications.descriptionContains;
+import static com.hospital.application.repository.FormulaSpecifications.hasPatient;
+import static com.hospital.application.repository.FormulaSpecifications.hasPriority;
+import static com.hospital.application.repository.FormulaSpecifications.validBetween;
 
 /**
  * Hospital Application.
@@ -41,37 +73,107 @@ import java.util.Collection;
 public class FormulasView extends AGridDiv<Formula> {
 
     /**
-     * Doctor records repository.
+     * Formula records repository.
+     */
+    private final FormulaRepository formulaRepository;
+
+    /**
+     * Service for writing prescriptions.
+     */
+    private final FormulaService formulaService;
+
+    /**
+     * Shared doctor and patient lookups.
+     */
+    private final ReferenceDataService referenceData;
+
+    /**
+     * CSV exporter of the journal.
+     */
+    private final FormulaCsvExporter exporter;
+
+    /**
+     * Condition of the current filter values. Kept apart from the
+     * filter fields, the export reads it outside the session lock.
+     */
+    private volatile Specification<Formula> filter;
+
+    /**
+     * Condition of the current filter values for the archive table.
+     */
+    private volatile Specification<ArchivedFormula> archiveFilter;
+
+    /**
+     * Archived formulas are shown and exported.
+     */
+    private volatile boolean includeArchive;
+
+    /**
+     * Provider of the journal rows.
+     */
+    private final FormulaKeysetDataProvider provider;
+
+    /**
+     * Filter by formula description.
+     */
+    private final TextField descriptionFilter = new TextField();
+
+    /**
+     * Filter by patient.
      */
-    private final DoctorRepository doctorRepository;
+    private final ComboBox<Patient> patientFilter = new ComboBox<>();
 
     /**
-     * Patient records repository.
+     * Filter by priority.
      */
-    private final PatientRepository patientRepository;
+    private final ComboBox<Priority> priorityFilter = new ComboBox<>();
+
+    /**
+     * Filter by creation date range.
+     */
+    private final DatePicker createdFromFilter = new DatePicker(),
+            createdToFilter = new DatePicker();
+
+    /**
+     * Filter by validity date range.
+     */
+    private final DatePicker validFromFilter = new DatePicker(),
+            validToFilter = new DatePicker();
 
     /**
      * Constructor.
      * <p>
      * Initialization of the main parameters.
      *
-     * @param pRepository - doctor records repository.
-     * @param dRepository - patient records repository.
-     * @param repository  - main records repository.
+     * @param repository    - main records repository.
+     * @param service       - service for writing prescriptions.
+     * @param referenceData - shared doctor and patient lookups.
+     * @param broadcaster   - bus of committed changes.
+     * @param exporter      - CSV exporter of the journal.
+     * @param archive       - archived records repository.
      */
     @Autowired
-    protected FormulasView(final PatientRepository pRepository,
-                           final DoctorRepository dRepository,
-                           final FormulaRepository repository) {
-        super(repository, Formula.class);
+    protected FormulasView(final FormulaRepository repository,
+                           final FormulaService service,
+                           final ReferenceDataService referenceData,
+                           final EntityChangeBroadcaster broadcaster,
+                           final FormulaCsvExporter exporter,
+                           final ArchivedFormulaRepository archive) {
+        super(repository, broadcaster, Formula.class);
         setId("formulas-view");
 
-        patientRepository = pRepository;
-        doctorRepository = dRepository;
+        formulaRepository = repository;
+        formulaService = service;
+        this.referenceData = referenceData;
+        this.exporter = exporter;
+        filter = filterSpecification();
+        archiveFilter = filterSpecification();
+        provider = new FormulaKeysetDataProvider(repository, archive,
+                () -> filter, () -> archiveFilter);
+        setDataProvider(provider);
 
         createPanelAddEntry();
 
-        grid.setItems(repository.findAll());
         grid.setHeight("70%");
 
         createEditTextColumn(
@@ -88,19 +190,22 @@ public class FormulasView extends AGridDiv<Formula> {
                 "Доктор",
                 "doctor",
                 Formula::getDoctorName,
-                doctorRepository.findAll()
-        );
+                this::fetchDoctors,
+                referenceData::countDoctors
+        ).setSortProperty("doctor.lastName", "doctor.name");
         createCheckBoxColumn(
                 "Пациент",
                 "patient",
                 Formula::getPatientName,
-                patientRepository.findAll()
-        );
+                this::fetchPatients,
+                referenceData::countPatients
+        ).setSortProperty("patient.lastName", "patient.name");
         createCheckBoxColumn(
                 "Приоритет",
                 "priority",
-                Formula::getPriority,
-                Formula.PRIORITIES
+                formula -> formula.getPriority().getLabel(),
+                Arrays.asList(Priority.values()),
+                Priority::getLabel
         );
         createDatePickerColumn(
                 "Создание",
@@ -114,6 +219,116 @@ public class FormulasView extends AGridDiv<Formula> {
 
         addFilterFields();
         createEditBtms();
+        header.add(createSearchField(), createArchiveToggle(),
+                createExportLink());
+    }
+
+    /**
+     * Setting a full-text search field, Enter shows the found formulas
+     * in a dialog, best matches first.
+     *
+     * @return search field.
+     */
+    private TextField createSearchField() {
+        TextField search = new TextField();
+        search.setPlaceholder("Поиск");
+        search.setClearButtonVisible(true);
+        search.addKeyPressListener(Key.ENTER, event -> {
+            String text = search.getValue();
+            if (!text.trim().isEmpty()) {
+                createSearchDialog(text).open();
+            }
+        });
+        return search;
+    }
+
+    /**
+     * Setting a dialog with the formulas found by the text, read page by
+     * page while the table scrolls.
+     *
+     * @param text - searched words.
+     * @return dialog.
+     */
+    private Dialog createSearchDialog(final String text) {
+        Grid<FormulaSearchHit> hits = new Grid<>();
+        hits.addColumn(new ComponentRenderer<>(hit ->
+                new Html("<span>" + hit.getHighlight() + "</span>")))
+                .setHeader("Описание").setFlexGrow(3);
+        hits.addColumn(hit -> hit.getFormula().getDoctorName())
+                .setHeader("Доктор");
+        hits.addColumn(hit -> hit.getFormula().getPatientName())
+                .setHeader("Пациент");
+        hits.addColumn(hit -> hit.getFormula().getCreationDate())
+                .setHeader("Создание");
+        hits.addColumn(hit -> String.format("%.2f", hit.getScore()))
+                .setHeader("Релевантность");
+        hits.setDataProvider(DataProvider.fromCallbacks(
+                query -> formulaRepository.search(text,
+                        query.getOffset(), query.getLimit()).stream(),
+                query -> formulaRepository.countMatches(text)));
+
+        Dialog dialog = new Dialog(hits);
+        dialog.setWidth("80vw");
+        dialog.setHeight("70vh");
+        hits.setHeightFull();
+        return dialog;
+    }
+
+    /**
+     * Setting a check box showing archived formulas in the journal.
+     * <p>
+     * With the archive only the columns with a key index can be sorted,
+     * another current sort is removed.
+     *
+     * @return check box.
+     */
+    private Checkbox createArchiveToggle() {
+        Checkbox toggle = new Checkbox("Включая архив");
+        toggle.addValueChangeListener(event -> {
+            boolean include = event.getValue();
+            for (Grid.Column<Formula> column : grid.getColumns()) {
+                List<QuerySortOrder> orders = column
+                        .getSortOrder(SortDirection.ASCENDING)
+                        .collect(Collectors.toList());
+                if (!orders.isEmpty()) {
+                    column.setSortable(!include
+                            || FormulaKeysetDataProvider.isKeyed(orders));
+                }
+            }
+            if (include && grid.getSortOrder().stream()
+                    .anyMatch(order -> !order.getSorted().isSortable())) {
+                grid.sort(Collections.emptyList());
+            }
+            includeArchive = include;
+            provider.setIncludeArchive(include);
+        });
+        return toggle;
+    }
+
+    /**
+     * Setting a link downloading the filtered journal as CSV, with the
+     * archive when it is shown.
+     *
+     * @return download link.
+     */
+    private Anchor createExportLink() {
+        StreamResource resource = new StreamResource("formulas.csv",
+                (stream, session) -> exporter.export(filter, archiveFilter,
+                        includeArchive, stream));
+        resource.setContentType("text/csv; charset=UTF-8");
+        Anchor link = new Anchor(resource, "");
+        link.getElement().setAttribute("download", true);
+        link.add(new Button("Экспорт CSV"));
+        return link;
+    }
+
+    /**
+     * Apply changed filter values to the table and the export.
+     */
+    private void filterChanged() {
+        filter = filterSpecification();
+        archiveFilter = filterSpecification();
+        update();
     }
 
     /**
@@ -122,67 +337,88 @@ public class FormulasView extends AGridDiv<Formula> {
     private void addFilterFields() {
         HeaderRow filterRow = grid.appendHeaderRow();
 
-        grid.setDataProvider(dataProvider);
+        descriptionFilter.setPlaceholder("Filter");
+        descriptionFilter.addValueChangeListener(event -> filterChanged());
+        descriptionFilter.setClearButtonVisible(true);
+        descriptionFilter.setValueChangeMode(ValueChangeMode.EAGER);
+        descriptionFilter.setSizeFull();
+
+        setComboXox(patientFilter, "Filter", this::fetchPatients,
+                referenceData::countPatients);
+        patientFilter.addValueChangeListener(event -> filterChanged());
+        patientFilter.setClearButtonVisible(true);
+
+        setComboXox(priorityFilter, "Filter",
+                Arrays.asList(Priority.values()), Priority::getLabel);
+        priorityFilter.addValueChangeListener(event -> filterChanged());
+        priorityFilter.setClearButtonVisible(true);
 
-        TextField descriptionField = new TextField();
-        descriptionField.setPlaceholder("Filter");
-        descriptionField.addValueChangeListener(event -> dataProvider.addFilter(
-                formula -> StringUtils.containsIgnoreCase(
-                        formula.getDescription(),
-                        descriptionField.getValue()
-                )
-        ));
-        descriptionField.setClearButtonVisible(true);
-        descriptionField.setValueChangeMode(ValueChangeMode.EAGER);
-        descriptionField.setSizeFull();
-
-        ComboBox<Patient> patientFilterComboBox = new ComboBox<>();
-        setComboXox(
-                patientFilterComboBox,
-                "Filter",
-                patientRepository.findAll()
-        );
-        patientFilterComboBox.addValueChangeListener(
-                event -> dataProvider.addFilter(
-                        formula -> {
-                            String filter;
-                            try {
-                                filter = patientFilterComboBox.getValue().toString();
-                            } catch (Exception e) {
-                                filter = "";
-                            }
-                            return StringUtils.containsIgnoreCase(
-                                    formula.getPatient().toString(),
-                                    filter
-                            );
-                        }));
-        patientFilterComboBox.setClearButtonVisible(true);
-
-        ComboBox<String> priorityFilterComboBox = new ComboBox<>();
-        setComboXox(priorityFilterComboBox, "Filter", Formula.PRIORITIES);
-        priorityFilterComboBox.addValueChangeListener(
-                event -> dataProvider.addFilter(
-                        formula -> {
-                            String filter;
-                            try {
-                                filter = priorityFilterComboBox.getValue().trim();
-                            } catch (Exception e) {
-                                filter = "";
-                            }
-                            return StringUtils.containsIgnoreCase(
-                                    formula.getPriority(),
-                                    filter
-                            );
-                        }
-                )
-        );
-        priorityFilterComboBox.setClearButtonVisible(true);
         filterRow.getCell(
-                grid.getColumns().get(0)).setComponent(descriptionField);
+                grid.getColumns().get(0)).setComponent(descriptionFilter);
         filterRow.getCell(
-                grid.getColumns().get(2)).setComponent(patientFilterComboBox);
+                grid.getColumns().get(2)).setComponent(patientFilter);
         filterRow.getCell(
-                grid.getColumns().get(3)).setComponent(priorityFilterComboBox);
+                grid.getColumns().get(3)).setComponent(priorityFilter);
+        filterRow.getCell(grid.getColumns().get(4)).setComponent(
+                createDateRangeFilter(createdFromFilter, createdToFilter));
+        filterRow.getCell(grid.getColumns().get(5)).setComponent(
+                createDateRangeFilter(validFromFilter, validToFilter));
+    }
+
+    /**
+     * Setting a pair of date pickers as a range filter.
+     *
+     * @param from - lower bound picker.
+     * @param to   - upper bound picker.
+     * @return layout with both pickers.
+     */
+    private HorizontalLayout createDateRangeFilter(final DatePicker from,
+                                                   final DatePicker to) {
+        from.setPlaceholder("с");
+        from.setClearButtonVisible(true);
+        from.addValueChangeListener(event -> filterChanged());
+        to.setPlaceholder("по");
+        to.setClearButtonVisible(true);
+        to.addValueChangeListener(event -> filterChanged());
+        HorizontalLayout layout = new HorizontalLayout(from, to);
+        layout.setSpacing(false);
+        return layout;
+    }
+
+    /**
+     * Combine the current filter values into one database query condition.
+     * Empty filters are skipped.
+     *
+     * @param <T> formula table type.
+     * @return query condition.
+     */
+    private <T extends BaseFormula> Specification<T> filterSpecification() {
+        return Specification
+                .<T>where(descriptionContains(descriptionFilter.getValue()))
+                .and(hasPatient(patientFilter.getValue()))
+                .and(hasPriority(priorityFilter.getValue()))
+                .and(createdBetween(
+                        createdFromFilter.getValue(),
+                        createdToFilter.getValue()))
+                .and(validBetween(
+                        validFromFilter.getValue(),
+                        validToFilter.getValue()));
+    }
+
+    @Override
+    protected boolean isEditable(final Formula item) {
+        return !item.isArchived();
+    }
+
+    @Override
+    protected Formula reload(final Formula item) {
+        return formulaRepository.findWithDoctorAndPatientById(item.getId())
+                .orElse(item);
+    }
+
+    @Override
+    protected Optional<Formula> findCommitted(final Formula item) {
+        return formulaRepository.findWithDoctorAndPatientById(item.getId());
     }
 
     @Override
@@ -192,12 +428,15 @@ public class FormulasView extends AGridDiv<Formula> {
 
         ComboBox<Doctor> doctorComboBox = new ComboBox<>();
         ComboBox<Patient> patientComboBox = new ComboBox<>();
-        ComboBox<String> priorityComboBox = new ComboBox<>();
+        ComboBox<Priority> priorityComboBox = new ComboBox<>();
 
 
-        setComboXox(priorityComboBox, "Приоритет рецепта", Formula.PRIORITIES);
-        setComboXox(doctorComboBox, "Доктора", doctorRepository.findAll());
-        setComboXox(patientComboBox, "Пациенты", patientRepository.findAll());
+        setComboXox(priorityComboBox, "Приоритет рецепта",
+                Arrays.asList(Priority.values()), Priority::getLabel);
+        setComboXox(doctorComboBox, "Доктора", this::fetchDoctors,
+                referenceData::countDoctors);
+        setComboXox(patientComboBox, "Пациенты", this::fetchPatients,
+                referenceData::countPatients);
 
         TextArea textArea = new TextArea("Description");
         textArea.setPlaceholder("Write here ...");
@@ -229,11 +468,7 @@ public class FormulasView extends AGridDiv<Formula> {
                 try {
                     Formula formula = new Formula();
                     binder.writeBean(formula);
-                    Doctor doctor = formula.getDoctor();
-                    doctor.addFormulas();
-                    doctorRepository.save(doctor);
-                    repository.save(formula);
-                    update();
+                    formulaService.prescribe(formula);
                     dialog.close();
                 } catch (ValidationException e) {
                     e.printStackTrace();
@@ -261,17 +496,69 @@ public class FormulasView extends AGridDiv<Formula> {
     /**
      * Setting common values for the Combobox component.
      *
-     * @param box  - component.
-     * @param name - text in placeholder.
-     * @param list - options in the drop-down list.
+     * @param box       - component.
+     * @param name      - text in placeholder.
+     * @param list      - options in the drop-down list.
+     * @param itemLabel - names of the options shown to the users.
+     * @param <T>       - option type.
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private void setComboXox(final ComboBox box,
-                             final String name,
-                             final Collection list) {
+    private <T> void setComboXox(final ComboBox<T> box,
+                                 final String name,
+                                 final Collection<T> list,
+                                 final ItemLabelGenerator<T> itemLabel) {
         box.setItems(list);
+        box.setItemLabelGenerator(itemLabel);
         box.setPlaceholder(name);
         box.setRequired(true);
         box.setClearButtonVisible(true);
     }
+
+    /**
+     * Setting common values for the Combobox component
+     * with options fetched lazily by the typed text.
+     *
+     * @param box        - component.
+     * @param name       - text in placeholder.
+     * @param fetchItems - fetches one window of options.
+     * @param countItems - counts options for the typed text.
+     * @param <T>        - option type.
+     */
+    private <T> void setComboXox(
+            final ComboBox<T> box,
+            final String name,
+            final ComboBox.FetchItemsCallback<T> fetchItems,
+            final SerializableFunction<String, Integer> countItems) {
+        box.setDataProvider(fetchItems, countItems);
+        box.setPlaceholder(name);
+        box.setRequired(true);
+        box.setClearButtonVisible(true);
+    }
+
+    /**
+     * Fetch doctors for a drop-down list.
+     *
+     * @param filter - typed text.
+     * @param offset - index of the first doctor.
+     * @param limit  - maximum number of doctors.
+     * @return doctors of the window.
+     */
+    private Stream<Doctor> fetchDoctors(final String filter,
+                                        final int offset,
+                                        final int limit) {
+        return referenceData.findDoctors(filter, offset, limit).stream();
+    }
+
+    /**
+     * Fetch patients for a drop-down list.
+     *
+     * @param filter - typed text.
+     * @param offset - index of the first patient.
+     * @param limit  - maximum number of patients.
+     * @return patients of the window.
+     */
+    private Stream<Patient> fetchPatients(final String filter,
+                                          final int offset,
+                                          final int limit) {
+        return referenceData.findPatients(filter, offset, limit).stream();
+    }
 }
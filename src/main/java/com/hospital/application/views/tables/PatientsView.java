@@ -1,20 +1,28 @@
 package com.hospital.application.views.tables;
 
 import com.hospital.application.entity.Patient;
+import com.hospital.application.event.EntityChangeBroadcaster;
 import com.hospital.application.repository.PatientRepository;
+import com.hospital.application.service.PersonCsvImporter;
 import com.hospital.application.views.MainView;
+import com.hospital.application.views.PatientHistoryView;
 import com.vaadin.flow.component.HasValue;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
-import com.vaadin.flow.data.validator.RegexpValidator;
-import com.vaadin.flow.data.validator.StringLengthValidator;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.PreserveOnRefresh;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.router.RouterLink;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.Optional;
+
+import static com.hospital.application.validation.PersonValidators.MAX_LENGTH;
+import static com.hospital.application.validation.PersonValidators.length;
+import static com.hospital.application.validation.PersonValidators.phoneNumber;
+
 /**
  * Hospital Application.
  * <p>
@@ -28,112 +36,91 @@ import org.springframework.beans.factory.annotation.Autowired;
 @PreserveOnRefresh
 public class PatientsView extends AGridDiv<Patient> {
 
+    /**
+     * CSV importer.
+     */
+    private final PersonCsvImporter importer;
+
     /**
      * Constructor.
      * <p>
      * Initializing table parameters.
      *
-     * @param repository - records repository.
+     * @param repository  - records repository.
+     * @param broadcaster - bus of committed changes.
+     * @param importer    - CSV importer.
      */
     @Autowired
-    public PatientsView(final PatientRepository repository) {
-        super(repository, Patient.class);
+    public PatientsView(final PatientRepository repository,
+                        final EntityChangeBroadcaster broadcaster,
+                        final PersonCsvImporter importer) {
+        super(repository, broadcaster, Patient.class);
+        this.importer = importer;
         setId("patients-view");
 
-        final int minLength = 3;
-        final int maxLength = 20;
-
         createPanelAddEntry();
 
-        grid.setItems(repository.findAll());
         grid.setHeight("70%");
 
         createEditTextColumn("Фамилия", "lastName",
                 Patient::getLastName,
-                new StringLengthValidator(
-                        "Слишком длинная фамилия",
-                        minLength,
-                        maxLength
-                )
-        );
+                length("Слишком длинная фамилия")
+        ).setSortProperty("lastName", "name", "patronymic");
         createEditTextColumn("Имя", "name",
                 Patient::getName,
-                new StringLengthValidator(
-                        "Слишком длинное имя",
-                        minLength,
-                        maxLength
-                )
+                length("Слишком длинное имя")
         );
         createEditTextColumn("Отчество", "patronymic",
                 Patient::getPatronymic,
-                new StringLengthValidator(
-                        "Слишком длинное отчество",
-                        minLength,
-                        maxLength
-                )
+                length("Слишком длинное отчество")
         );
         createEditTextColumn("Моб. номер", "number",
                 Patient::getNumber,
-                new RegexpValidator(
-                        "Невалидный номер",
-                        "(\\s*)?(\\+)?([- _():=+]?\\d[- _():=+]?){10,14}(\\s*)?"
-                )
+                phoneNumber("Невалидный номер")
         );
 
+        grid.addComponentColumn(patient -> new RouterLink(
+                "История", PatientHistoryView.class, patient.getId()));
+
         createEditBtms();
     }
 
     @Override
-    protected void createPanelAddEntry() {
-        final int minLength = 3;
-        final int maxLength = 20;
+    protected Optional<Patient> findCommitted(final Patient item) {
+        return repository.findById(item.getId());
+    }
 
+    @Override
+    protected void createPanelAddEntry() {
         Binder<Patient> patientBinder = new Binder<>(Patient.class);
 
         TextField numberInput = new TextField("Номер телефона");
         numberInput.setClearButtonVisible(true);
         TextField nameInput = new TextField("Имя");
-        nameInput.setMaxLength(maxLength);
+        nameInput.setMaxLength(MAX_LENGTH);
         TextField lastNameInput = new TextField("Фамилия");
-        lastNameInput.setMaxLength(maxLength);
+        lastNameInput.setMaxLength(MAX_LENGTH);
         TextField patronymicInput = new TextField("Отчество");
-        patronymicInput.setMaxLength(maxLength);
+        patronymicInput.setMaxLength(MAX_LENGTH);
 
         patientBinder.forField(lastNameInput)
                 .withValidator(
-                        new StringLengthValidator(
-                                "Фамилия не корректна",
-                                minLength,
-                                maxLength
-                        )
+                        length("Фамилия не корректна")
                 )
                 .bind(Patient::getLastName, Patient::setLastName);
         patientBinder.forField(nameInput)
                 .withValidator(
-                        new StringLengthValidator(
-                                "Имя не корректно",
-                                minLength,
-                                maxLength
-                        )
+                        length("Имя не корректно")
                 )
                 .bind(Patient::getName, Patient::setName);
         patientBinder.forField(patronymicInput)
                 .withValidator(
-                        new StringLengthValidator(
-                                "Отчество не корректно",
-                                minLength,
-                                maxLength
-                        )
+                        length("Отчество не корректно")
                 )
                 .bind(Patient::getPatronymic, Patient::setPatronymic);
-        final String reg
-                = "(\\s*)?(\\+)?([- _():=+]?\\d[- _():=+]?){10,14}(\\s*)?";
         patientBinder.forField(numberInput)
                 .withValidator(
-                        new RegexpValidator(
-                                "Невалидный номер",
-                                reg
-                        )
+                        phoneNumber("Невалидный номер")
                 )
                 .bind(Patient::getNumber, Patient::setNumber);
 
@@ -149,7 +136,6 @@ public class PatientsView extends AGridDiv<Patient> {
                         f.setInvalid(false);
                     });
                     repository.save(p);
-                    update();
                 } catch (ValidationException ex) {
                     ex.printStackTrace();
                 }
@@ -161,7 +147,8 @@ public class PatientsView extends AGridDiv<Patient> {
                 patronymicInput,
                 lastNameInput,
                 numberInput,
-                btnAdd
+                btnAdd,
+                createCsvUpload(importer, importer::importPatients)
         );
     }
 }
@@ -0,0 +1,109 @@
+package com.hospital.application.views.tables;
+
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.DataProviderListener;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.shared.Registration;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Data provider of a table recording the latency of its backend calls.
+ * <p>
+ * "hospital.grid.fetch" times the windows and "hospital.grid.rows" counts
+ * their rows, "hospital.grid.count" times the size queries, all tagged
+ * with the table. The meters are looked up in the global registry on
+ * every call: the provider is kept in the serializable session state and
+ * can not hold them.
+ *
+ * @param <T> item type.
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+class TimedDataProvider<T> implements DataProvider<T, Void> {
+
+    /**
+     * Wrapped provider.
+     */
+    private final DataProvider<T, Void> delegate;
+
+    /**
+     * Name of the table.
+     */
+    private final String grid;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate - wrapped provider.
+     * @param grid     - name of the table.
+     */
+    TimedDataProvider(final DataProvider<T, Void> delegate,
+                      final String grid) {
+        this.delegate = delegate;
+        this.grid = grid;
+    }
+
+    @Override
+    public Stream<T> fetch(final Query<T, Void> query) {
+        long start = System.nanoTime();
+        List<T> rows = delegate.fetch(query).collect(Collectors.toList());
+        Timer.builder("hospital.grid.fetch")
+                .description("Windows fetched by the tables")
+                .tag("grid", grid)
+                .register(Metrics.globalRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("hospital.grid.rows")
+                .description("Rows of the windows fetched by the tables")
+                .tag("grid", grid)
+                .register(Metrics.globalRegistry)
+                .record(rows.size());
+        return rows.stream();
+    }
+
+    @Override
+    public int size(final Query<T, Void> query) {
+        long start = System.nanoTime();
+        int size = delegate.size(query);
+        Timer.builder("hospital.grid.count")
+                .description("Size queries of the tables")
+                .tag("grid", grid)
+                .register(Metrics.globalRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return size;
+    }
+
+    @Override
+    public boolean isInMemory() {
+        return delegate.isInMemory();
+    }
+
+    @Override
+    public Object getId(final T item) {
+        return delegate.getId(item);
+    }
+
+    @Override
+    public void refreshItem(final T item) {
+        delegate.refreshItem(item);
+    }
+
+    @Override
+    public void refreshAll() {
+        delegate.refreshAll();
+    }
+
+    @Override
+    public Registration addDataProviderListener(
+            final DataProviderListener<T> listener) {
+        return delegate.addDataProviderListener(listener);
+    }
+}
@@ -0,0 +1,86 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Moves the ID sequences past the IDs already stored.
+ * <p>
+ * Rows written before the sequences existed got their IDs from the shared
+ * "hibernate_sequence", while a new sequence starts at 1. Every sequence
+ * is restarted above the largest ID of its table.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+public class V2__Seed_id_sequences extends BaseJavaMigration {
+
+    /**
+     * Tables with IDs generated by the sequence "table_seq".
+     */
+    private static final String[] TABLES = {"patient", "doctor", "formula"};
+
+    @Override
+    public void migrate(final Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        for (String table : TABLES) {
+            long next = nextValue(connection, table + "_seq");
+            long maxId = maxId(connection, table);
+            if (next <= maxId) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER SEQUENCE " + table
+                            + "_seq RESTART WITH " + (maxId + 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Next value of a sequence, without taking it.
+     *
+     * @param connection - connection.
+     * @param sequence   - sequence name.
+     * @return next value.
+     * @throws SQLException if the sequence can not be read.
+     */
+    private static long nextValue(final Connection connection,
+                                  final String sequence) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT next_value FROM information_schema.sequences"
+                        + " WHERE sequence_name = ?")) {
+            statement.setString(1, sequence.toUpperCase());
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("No sequence " + sequence);
+                }
+                return Long.parseLong(rs.getString(1));
+            }
+        }
+    }
+
+    /**
+     * Largest ID of a table.
+     *
+     * @param connection - connection.
+     * @param table      - table name.
+     * @return largest ID or 0 for an empty table.
+     * @throws SQLException if the table can not be read.
+     */
+    private static long maxId(final Connection connection,
+                              final String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
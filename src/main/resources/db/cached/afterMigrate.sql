@@ -0,0 +1,24 @@
+-- Hospital Application.
+-- Tuning of the "cached" profile, applied after every migration run so
+-- that databases created with the default settings are converted too.
+-- Rows are kept in the .data file and only the most recently used ones
+-- in the heap cache; changes are logged with a short write delay and a
+-- checkpoint is made whenever the log reaches its size.
+
+SET DATABASE DEFAULT TABLE TYPE CACHED;
+SET TABLE patient TYPE CACHED;
+SET TABLE doctor TYPE CACHED;
+SET TABLE formula TYPE CACHED;
+SET TABLE formula_archive TYPE CACHED;
+SET TABLE job_state TYPE CACHED;
+
+SET FILES CACHE ROWS ${cache_rows};
+SET FILES CACHE SIZE ${cache_size};
+SET FILES NIO TRUE;
+SET FILES NIO SIZE ${nio_size};
+SET FILES LOG SIZE ${log_size};
+SET FILES DEFRAG ${defrag};
+SET FILES WRITE DELAY ${write_delay} MILLIS;
+
+-- Readers do not wait for writers of other sessions.
+SET DATABASE TRANSACTION CONTROL MVCC;
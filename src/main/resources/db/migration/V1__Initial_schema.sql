@@ -0,0 +1,46 @@
+-- Hospital Application.
+-- Initial schema. Tables and sequences are created only when missing,
+-- so databases created earlier by Hibernate are taken over as they are.
+
+CREATE TABLE IF NOT EXISTS patient (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    last_name  VARCHAR(255) NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    patronymic VARCHAR(255) NOT NULL,
+    number     VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS doctor (
+    id             BIGINT       NOT NULL PRIMARY KEY,
+    last_name      VARCHAR(255) NOT NULL,
+    name           VARCHAR(255) NOT NULL,
+    patronymic     VARCHAR(255) NOT NULL,
+    specialization VARCHAR(255) NOT NULL,
+    count_formulas INTEGER      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS formula (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    description   VARCHAR(255) NOT NULL,
+    doctor_id     BIGINT       NOT NULL,
+    patient_id    BIGINT,
+    priority      VARCHAR(255) NOT NULL,
+    creation_date DATE         NOT NULL,
+    validity      DATE         NOT NULL,
+    CONSTRAINT fk_formula_doctor FOREIGN KEY (doctor_id) REFERENCES doctor (id),
+    CONSTRAINT fk_formula_patient FOREIGN KEY (patient_id) REFERENCES patient (id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS patient_seq START WITH 1 INCREMENT BY ${allocation_size};
+CREATE SEQUENCE IF NOT EXISTS doctor_seq START WITH 1 INCREMENT BY ${allocation_size};
+CREATE SEQUENCE IF NOT EXISTS formula_seq START WITH 1 INCREMENT BY ${allocation_size};
+
+-- Sorting and looking up persons by full name.
+CREATE INDEX IF NOT EXISTS idx_patient_full_name ON patient (last_name, name, patronymic);
+CREATE INDEX IF NOT EXISTS idx_doctor_full_name ON doctor (last_name, name, patronymic);
+
+-- Filters and sorting of the formulas table. The doctor_id and patient_id
+-- columns are indexed by HSQLDB together with their foreign keys.
+CREATE INDEX IF NOT EXISTS idx_formula_priority ON formula (priority);
+CREATE INDEX IF NOT EXISTS idx_formula_creation_date ON formula (creation_date);
+CREATE INDEX IF NOT EXISTS idx_formula_validity ON formula (validity);
@@ -0,0 +1,16 @@
+-- Hospital Application.
+-- Every table window is ordered by the sorted columns and then by ID,
+-- the indexes end with the ID so the ordering is read from them.
+
+DROP INDEX idx_patient_full_name IF EXISTS;
+DROP INDEX idx_doctor_full_name IF EXISTS;
+DROP INDEX idx_formula_priority IF EXISTS;
+DROP INDEX idx_formula_creation_date IF EXISTS;
+DROP INDEX idx_formula_validity IF EXISTS;
+
+CREATE INDEX idx_patient_full_name ON patient (last_name, name, patronymic, id);
+CREATE INDEX idx_doctor_full_name ON doctor (last_name, name, patronymic, id);
+
+CREATE INDEX idx_formula_priority ON formula (priority, id);
+CREATE INDEX idx_formula_creation_date ON formula (creation_date, id);
+CREATE INDEX idx_formula_validity ON formula (validity, id);
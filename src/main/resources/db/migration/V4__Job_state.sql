@@ -0,0 +1,7 @@
+-- Hospital Application.
+-- Progress of scheduled jobs, the last date each job has processed.
+
+CREATE TABLE job_state (
+    name      VARCHAR(64) NOT NULL PRIMARY KEY,
+    watermark DATE        NOT NULL
+);
@@ -0,0 +1,18 @@
+-- Hospital Application.
+-- Archive of old formulas. Rows are moved here from "formula" with their
+-- IDs, so the current table only holds the formulas in use.
+
+CREATE TABLE formula_archive (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    description   VARCHAR(255) NOT NULL,
+    doctor_id     BIGINT       NOT NULL,
+    patient_id    BIGINT,
+    priority      VARCHAR(255) NOT NULL,
+    creation_date DATE         NOT NULL,
+    validity      DATE         NOT NULL,
+    CONSTRAINT fk_formula_archive_doctor FOREIGN KEY (doctor_id) REFERENCES doctor (id),
+    CONSTRAINT fk_formula_archive_patient FOREIGN KEY (patient_id) REFERENCES patient (id)
+);
+
+CREATE INDEX idx_formula_archive_creation_date ON formula_archive (creation_date, id);
+CREATE INDEX idx_formula_archive_validity ON formula_archive (validity, id);
@@ -0,0 +1,6 @@
+-- Hospital Application.
+-- Prescription history of a patient, newest first. The index holds the
+-- whole ordering, so a page of the history reads only the patient's rows.
+
+CREATE INDEX idx_formula_patient_history ON formula (patient_id, creation_date, id);
+CREATE INDEX idx_formula_archive_patient_history ON formula_archive (patient_id, creation_date, id);
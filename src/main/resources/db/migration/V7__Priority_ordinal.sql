@@ -0,0 +1,29 @@
+-- Hospital Application.
+-- Priorities are stored as the ordinal of the Priority enum, most urgent
+-- first, instead of their label. The work queue is read in the
+-- (priority, creation_date, id) order straight from its index.
+-- A label that names no priority is left NULL, so the NOT NULL
+-- constraint fails the migration instead of guessing a priority.
+
+DROP INDEX idx_formula_priority IF EXISTS;
+
+ALTER TABLE formula ADD COLUMN priority_ordinal SMALLINT;
+UPDATE formula SET priority_ordinal = CASE TRIM(priority)
+    WHEN 'Немедленный' THEN 0
+    WHEN 'Срочный' THEN 1
+    WHEN 'Нормальный' THEN 2 END;
+ALTER TABLE formula DROP COLUMN priority;
+ALTER TABLE formula ALTER COLUMN priority_ordinal RENAME TO priority;
+ALTER TABLE formula ALTER COLUMN priority SET NOT NULL;
+
+ALTER TABLE formula_archive ADD COLUMN priority_ordinal SMALLINT;
+UPDATE formula_archive SET priority_ordinal = CASE TRIM(priority)
+    WHEN 'Немедленный' THEN 0
+    WHEN 'Срочный' THEN 1
+    WHEN 'Нормальный' THEN 2 END;
+ALTER TABLE formula_archive DROP COLUMN priority;
+ALTER TABLE formula_archive ALTER COLUMN priority_ordinal RENAME TO priority;
+ALTER TABLE formula_archive ALTER COLUMN priority SET NOT NULL;
+
+CREATE INDEX idx_formula_priority ON formula (priority, id);
+CREATE INDEX idx_formula_work_queue ON formula (priority, creation_date, id);
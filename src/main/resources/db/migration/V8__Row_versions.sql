@@ -0,0 +1,8 @@
+-- Hospital Application.
+-- Row versions for the optimistic locking of the editable tables. Every
+-- update through the application increments the version, a save of a
+-- row read before it fails instead of overwriting the change.
+
+ALTER TABLE patient ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE doctor ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE formula ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
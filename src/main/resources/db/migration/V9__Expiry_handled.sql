@@ -0,0 +1,22 @@
+-- Hospital Application.
+-- Progress of the expiry job per formula instead of a last processed
+-- date, so formulas inserted with a past validity or moved to an earlier
+-- one are found too. Every change of the validity makes a formula
+-- pending again. The index serves the search for pending formulas in
+-- validity order.
+
+ALTER TABLE formula ADD COLUMN expiry_handled BOOLEAN DEFAULT FALSE NOT NULL;
+
+UPDATE formula SET expiry_handled = TRUE
+ WHERE validity <= COALESCE(
+       (SELECT watermark FROM job_state WHERE name = 'formula-expiry'),
+       CURRENT_DATE - INTERVAL '${expiry_lookback_days}' DAY - INTERVAL '1' DAY);
+
+DELETE FROM job_state WHERE name = 'formula-expiry';
+
+CREATE INDEX idx_formula_expiry ON formula (expiry_handled, validity, id);
+
+CREATE TRIGGER trg_formula_expiry_reset BEFORE UPDATE OF validity ON formula
+    REFERENCING OLD ROW AS old_row NEW ROW AS new_row
+    FOR EACH ROW WHEN (new_row.validity <> old_row.validity)
+    SET new_row.expiry_handled = FALSE;
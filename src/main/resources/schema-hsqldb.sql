@@ -1,6 +0,0 @@
-CREATE TABLE customer(
-  first_name  VARCHAR(150),
-  last_name   VARCHAR(150),
-  age         INTEGER,
-  place       VARCHAR(100)
-);
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.hospital.application.repository;
+
+import com.hospital.application.entity.Doctor;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.entity.Patient;
+import com.hospital.application.entity.Priority;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hospital Application.
+ * <p>
+ * A window of the formula grid, with the doctor and patient names shown
+ * in every row, is read by a single SQL statement whatever the number of
+ * distinct doctors and patients.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.search.default.directory_provider"
+                + "=local-heap"
+})
+class FormulaGridStatementCountTest {
+
+    /**
+     * Formulas, doctors and patients written by the test.
+     */
+    private static final int ROWS = 20;
+
+    /**
+     * Formula records repository.
+     */
+    @Autowired
+    private FormulaRepository formulaRepository;
+
+    /**
+     * Test entity manager.
+     */
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /**
+     * Entity manager factory.
+     */
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Hibernate statistics.
+     */
+    private Statistics statistics;
+
+    /**
+     * Write formulas of distinct doctors and patients and forget them.
+     */
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setLastName("Иванов" + i);
+            doctor.setName("Иван");
+            doctor.setPatronymic("Иванович");
+            doctor.setSpecialization("Терапевт");
+            entityManager.persist(doctor);
+
+            Patient patient = new Patient();
+            patient.setLastName("Петров" + i);
+            patient.setName("Пётр");
+            patient.setPatronymic("Петрович");
+            patient.setNumber("+7900000000" + i);
+            entityManager.persist(patient);
+
+            Formula formula = new Formula();
+            formula.setDescription("Рецепт " + i);
+            formula.setDoctor(doctor);
+            formula.setPatient(patient);
+            formula.setPriority(Priority.NORMAL);
+            formula.setCreationDate(LocalDate.now().minusDays(i));
+            formula.setValidity(LocalDate.now().plusDays(i));
+            entityManager.persist(formula);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Keyset window, as read while scrolling.
+     */
+    @Test
+    void keysetWindowIsOneStatement() {
+        List<Formula> window = formulaRepository.findNext(null,
+                FormulaKeyset.CREATION_DATE, Sort.Direction.ASC, null,
+                ROWS * 2);
+
+        assertNamesShown(window);
+    }
+
+    /**
+     * Offset window, as read for a sort without a key index.
+     */
+    @Test
+    void offsetWindowIsOneStatement() {
+        Specification<Formula> all = null;
+        List<Formula> window = formulaRepository.findAll(all,
+                new OffsetBasedPageRequest(0, ROWS * 2,
+                        Sort.by("description"))).getContent();
+
+        assertNamesShown(window);
+    }
+
+    /**
+     * Show the names of every row and check that nothing more was read.
+     *
+     * @param window - rows of the grid.
+     */
+    private void assertNamesShown(final List<Formula> window) {
+        assertThat(window).hasSize(ROWS);
+        for (Formula formula : window) {
+            assertThat(formula.getDoctorName()).startsWith("Иванов");
+            assertThat(formula.getPatientName()).startsWith("Петров");
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
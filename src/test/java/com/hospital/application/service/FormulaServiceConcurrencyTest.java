@@ -0,0 +1,129 @@
+package com.hospital.application.service;
+
+import com.hospital.application.entity.Doctor;
+import com.hospital.application.entity.Formula;
+import com.hospital.application.entity.Priority;
+import com.hospital.application.repository.DoctorRepository;
+import com.hospital.application.repository.FormulaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hospital Application.
+ * <p>
+ * Concurrent prescriptions of the same doctor are all counted. Every
+ * writer commits its own transaction, so the test itself runs without
+ * one.
+ *
+ * @author Dmitriy Kalistratov <dmitry@kalistratov.ru>
+ * @version 1.0
+ */
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.search.default.directory_provider"
+                + "=local-heap")
+@Import(FormulaService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FormulaServiceConcurrencyTest {
+
+    /**
+     * Concurrent writers.
+     */
+    private static final int WRITERS = 32;
+
+    /**
+     * Prescriptions written by every writer.
+     */
+    private static final int PRESCRIPTIONS = 10;
+
+    /**
+     * Service for writing prescriptions.
+     */
+    @Autowired
+    private FormulaService formulaService;
+
+    /**
+     * Doctor records repository.
+     */
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    /**
+     * Formula records repository.
+     */
+    @Autowired
+    private FormulaRepository formulaRepository;
+
+    /**
+     * No increment is lost when all writers prescribe at once.
+     *
+     * @throws Exception if a writer failed.
+     */
+    @Test
+    void concurrentPrescriptionsAreAllCounted() throws Exception {
+        Doctor doctor = new Doctor();
+        doctor.setLastName("Иванов");
+        doctor.setName("Иван");
+        doctor.setPatronymic("Иванович");
+        doctor.setSpecialization("Терапевт");
+        Doctor saved = doctorRepository.save(doctor);
+
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                results.add(writers.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < PRESCRIPTIONS; j++) {
+                        formulaService.prescribe(formulaOf(saved));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+
+        assertThat(doctorRepository.findById(saved.getId()))
+                .hasValueSatisfying(counted -> assertThat(
+                        counted.getCountFormulas())
+                        .isEqualTo(WRITERS * PRESCRIPTIONS));
+        assertThat(formulaRepository.count())
+                .isEqualTo(WRITERS * PRESCRIPTIONS);
+    }
+
+    /**
+     * New formula of a doctor.
+     *
+     * @param doctor - doctor.
+     * @return formula, not saved.
+     */
+    private static Formula formulaOf(final Doctor doctor) {
+        Formula formula = new Formula();
+        formula.setDescription("Рецепт");
+        formula.setDoctor(doctor);
+        formula.setPriority(Priority.NORMAL);
+        formula.setCreationDate(LocalDate.now());
+        formula.setValidity(LocalDate.now().plusDays(30));
+        return formula;
+    }
+}